@@ -0,0 +1,42 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/batch")
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+
+    // Операции выполняются параллельно, результаты возвращаются в порядке операций.
+    @PostMapping
+    public Mono<ResponseEntity<Object>> executeBatch(@Valid @RequestBody BatchRequestDto batchRequestDto,
+                                                     HttpServletRequest request) {
+        List<BatchOperationDto> operations = batchRequestDto.getOperations();
+        log.info("Получен POST запрос по эндпоинту /batch на выполнение {} операций.", operations.size());
+        List<Mono<?>> results = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationDto operation = operations.get(i);
+            String id = operation.getId() != null ? operation.getId() : String.valueOf(i);
+            results.add(batchDispatcher.dispatch(request, id, operation));
+        }
+        return Flux.mergeSequential(results)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+}
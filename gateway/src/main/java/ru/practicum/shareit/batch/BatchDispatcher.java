@@ -0,0 +1,234 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.method.MethodValidationResult;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+import org.springframework.web.util.ServletRequestPathUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.ratelimit.EndpointClass;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BatchDispatcher implements DisposableBean {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final List<String> RESULT_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER, BaseClient.NEXT_CURSOR_HEADER);
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private final ObjectMapper mapper;
+    @Nullable
+    private final RateLimiter rateLimiter;
+    private final Scheduler scheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(),
+            "batch");
+
+    public BatchDispatcher(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                           RequestMappingHandlerAdapter handlerAdapter, ObjectMapper mapper,
+                           Optional<RateLimiter> rateLimiter) {
+        this.handlerMapping = handlerMapping;
+        this.handlerAdapter = handlerAdapter;
+        this.mapper = mapper;
+        this.rateLimiter = rateLimiter.orElse(null);
+    }
+
+    // Обработчик вызывается в текущем потоке, запрос к серверу уходит при подписке в виртуальном потоке.
+    public Mono<BatchResultDto> dispatch(HttpServletRequest request, String id, BatchOperationDto operation) {
+        if (rateLimiter != null) {
+            long wait = rateLimiter.tryAcquire(RateLimiter.clientOf(request),
+                    EndpointClass.of(operation.getMethod(), operation.getPath().split("\\?", 2)[0]));
+            if (wait > 0) {
+                long retryAfter = RateLimiter.retryAfterSeconds(wait);
+                return Mono.just(new BatchResultDto(id, HttpStatus.TOO_MANY_REQUESTS.value(),
+                        Map.of(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)),
+                        Map.of("error", RateLimiter.throttledMessage(retryAfter))));
+            }
+        }
+        Mono<ResponseEntity<Object>> response;
+        try {
+            response = invoke(request, operation);
+        } catch (Exception e) {
+            return Mono.just(failure(id, e));
+        }
+        if (response == null) {
+            return Mono.just(failure(id, new BatchOperationException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Операция " + operation.getPath() + " не вернула ответ")));
+        }
+        return response
+                .subscribeOn(scheduler)
+                .map(entity -> success(id, entity))
+                .onErrorResume(e -> Mono.just(failure(id, e)));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<ResponseEntity<Object>> invoke(HttpServletRequest request, BatchOperationDto operation)
+            throws Exception {
+        HttpMethod method = HttpMethod.valueOf(operation.getMethod().toUpperCase());
+        byte[] body = operation.getBody() != null ? mapper.writeValueAsBytes(operation.getBody()) : new byte[0];
+        BatchSubRequest subRequest = new BatchSubRequest(request, method, operation.getPath(),
+                headers(request, operation), body);
+        ServletRequestPathUtils.parseAndCache(subRequest);
+
+        HandlerExecutionChain chain = handlerMapping.getHandler(subRequest);
+        if (chain == null || !(chain.getHandler() instanceof HandlerMethod handlerMethod)) {
+            throw new BatchOperationException(HttpStatus.NOT_FOUND,
+                    "Не найден обработчик для " + method + " " + operation.getPath());
+        }
+        if (handlerMethod.getBean() instanceof BatchController
+                || !Mono.class.isAssignableFrom(handlerMethod.getReturnType().getParameterType())) {
+            throw new BatchOperationException(HttpStatus.BAD_REQUEST,
+                    "Операция " + method + " " + operation.getPath() + " не поддерживается в пакетном запросе");
+        }
+
+        ServletInvocableHandlerMethod invocable = new ServletInvocableHandlerMethod(handlerMethod);
+        invocable.setHandlerMethodArgumentResolvers(
+                new HandlerMethodArgumentResolverComposite().addResolvers(handlerAdapter.getArgumentResolvers()));
+        invocable.setDataBinderFactory(new ServletRequestDataBinderFactory(null,
+                handlerAdapter.getWebBindingInitializer() != null
+                        ? handlerAdapter.getWebBindingInitializer()
+                        : new ConfigurableWebBindingInitializer()));
+        invocable.setParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+        log.debug("Пакетная операция {} {} передана в {}.", method, operation.getPath(), handlerMethod);
+        return (Mono<ResponseEntity<Object>>) invocable.invokeForRequest(new ServletWebRequest(subRequest),
+                new ModelAndViewContainer());
+    }
+
+    // Операция всегда выполняется от имени пользователя пакета и расходует его лимит.
+    private static HttpHeaders headers(HttpServletRequest request, BatchOperationDto operation) {
+        HttpHeaders headers = new HttpHeaders();
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId != null) {
+            headers.set(USER_ID_HEADER, userId);
+        }
+        if (operation.getHeaders() != null) {
+            if (operation.getHeaders().keySet().stream().anyMatch(USER_ID_HEADER::equalsIgnoreCase)) {
+                throw new BatchOperationException(HttpStatus.BAD_REQUEST,
+                        "Заголовок " + USER_ID_HEADER + " берется из пакетного запроса и не задается в операции");
+            }
+            operation.getHeaders().forEach(headers::set);
+        }
+        if (operation.getBody() != null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        return headers;
+    }
+
+    private BatchResultDto success(String id, ResponseEntity<Object> entity) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        RESULT_HEADERS.forEach(name -> {
+            String value = entity.getHeaders().getFirst(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        });
+        return new BatchResultDto(id, entity.getStatusCode().value(), headers,
+                body(entity.getBody(), entity.getHeaders().getContentType()));
+    }
+
+    private Object body(Object body, MediaType contentType) {
+        if (!(body instanceof byte[] bytes)) {
+            return body;
+        }
+        if (bytes.length == 0) {
+            return null;
+        }
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return new RawValue(new String(bytes, StandardCharsets.UTF_8));
+        }
+        try {
+            return mapper.readTree(bytes);
+        } catch (Exception e) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static BatchResultDto failure(String id, Throwable e) {
+        HttpStatus status = status(e);
+        if (status.is5xxServerError()) {
+            log.warn("Пакетная операция {} завершилась ошибкой.", id, e);
+        }
+        return new BatchResultDto(id, status.value(), null, Map.of("error", message(e)));
+    }
+
+    private static HttpStatus status(Throwable e) {
+        if (e instanceof BatchOperationException batch) {
+            return batch.getStatus();
+        }
+        if (e instanceof ErrorResponse error) {
+            return HttpStatus.valueOf(error.getStatusCode().value());
+        }
+        if (e instanceof ConstraintViolationException || e instanceof IllegalArgumentException
+                || e instanceof HttpMessageNotReadableException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static String message(Throwable e) {
+        if (e instanceof MethodArgumentNotValidException invalid) {
+            return invalid.getBindingResult().getAllErrors().stream()
+                    .map(MessageSourceResolvable::getDefaultMessage)
+                    .collect(Collectors.joining("; "));
+        }
+        if (e instanceof MethodValidationResult invalid) {
+            return invalid.getAllErrors().stream()
+                    .map(MessageSourceResolvable::getDefaultMessage)
+                    .collect(Collectors.joining("; "));
+        }
+        if (e instanceof ConstraintViolationException invalid) {
+            return invalid.getConstraintViolations().stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+        }
+        if (e instanceof ErrorResponse error && error.getBody().getDetail() != null) {
+            return error.getBody().getDetail();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+class BatchOperationException extends RuntimeException {
+    private final HttpStatus status;
+
+    BatchOperationException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
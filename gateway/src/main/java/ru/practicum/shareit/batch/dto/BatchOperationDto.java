@@ -0,0 +1,26 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOperationDto {
+    private String id;
+    @NotBlank(message = "Не указан метод операции.")
+    private String method;
+    @NotBlank(message = "Не указан путь операции.")
+    @Pattern(regexp = "^/.*", message = "Путь операции должен начинаться с /.")
+    private String path;
+    private Map<String, String> headers;
+    private JsonNode body;
+}
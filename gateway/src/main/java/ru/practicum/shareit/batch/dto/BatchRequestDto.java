@@ -0,0 +1,22 @@
+package ru.practicum.shareit.batch.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchRequestDto {
+    @Valid
+    @NotEmpty(message = "Пакет не содержит операций.")
+    @Size(max = 50, message = "Пакет не может содержать больше 50 операций.")
+    private List<BatchOperationDto> operations;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BatchResultDto {
+    private String id;
+    private int status;
+    private Map<String, String> headers;
+    private Object body;
+}
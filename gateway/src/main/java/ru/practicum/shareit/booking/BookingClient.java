@@ -5,14 +5,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerResilience;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -20,40 +25,66 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                         @Value("${shareit-server.passthrough}") boolean passthrough,
+                         @Value("${shareit-server.reactive}") boolean reactive,
+                         Optional<ShareItServerResilience> resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                reactive ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                passthrough,
+                resilience.orElse(null)
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                                    String cursor) {
+        return get(pagedPath("", cursor), userId, pagedParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookingRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId, String ifNoneMatch) {
+        return get("/" + bookingId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> acceptBooking(long userId, boolean approved, Long bookingId) {
+    public Mono<ResponseEntity<Object>> acceptBooking(long userId, boolean approved, Long bookingId) {
         return patch("/" + bookingId + "?" + "approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> findOwnerBookings(Long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("/owner?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> findOwnerBookings(Long userId, BookingState state, Integer from,
+                                                          Integer size, String cursor) {
+        return get(pagedPath("/owner", cursor), userId, pagedParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<Object>> getArchivedBookings(long userId, Integer from, Integer size) {
+        return get("/archive?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+    }
+
+    public Mono<ResponseEntity<Object>> findOwnerArchivedBookings(long userId, Integer from, Integer size) {
+        return get("/owner/archive?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+    }
+
+    private static String pagedPath(String path, String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pagedParameters(BookingState state, Integer from, Integer size,
+                                                       String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
-}
\ No newline at end of file
+}
@@ -5,10 +5,12 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -22,39 +24,66 @@ public class BookingController {
 	private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
-											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
+											        @RequestParam(name = "state", defaultValue = "all") String stateParam,
+											        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+											        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+											        @RequestParam(name = "cursor", required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Неопознаный статус: " + stateParam));
-		return bookingClient.getBookings(userId, state, from, size);
+		return bookingClient.getBookings(userId, state, from, size, cursor);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID_HEADER) long userId,
-										   @RequestBody @Valid BookingRequestDto requestDto) {
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(USER_ID_HEADER) long userId,
+										         @RequestBody @Valid BookingRequestDto requestDto) {
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
-											 @PathVariable Long bookingId) {
-		return bookingClient.getBooking(userId, bookingId);
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
+											       @PathVariable Long bookingId,
+											       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> acceptBooking(@RequestHeader(USER_ID_HEADER) Long userId,
-												@RequestParam boolean approved, @PathVariable Long bookingId) {
+	public Mono<ResponseEntity<Object>> acceptBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+												      @RequestParam boolean approved, @PathVariable Long bookingId) {
 		return bookingClient.acceptBooking(userId, approved, bookingId);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> findOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
-													@RequestParam(name = "state", defaultValue = "all")
-													String stateParam) {
+	public Mono<ResponseEntity<Object>> findOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+													      @RequestParam(name = "state", defaultValue = "all")
+													      String stateParam,
+													      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+													      Integer from,
+													      @Positive @RequestParam(name = "size", defaultValue = "10")
+													      Integer size,
+													      @RequestParam(name = "cursor", required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Неопознаный статус: " + stateParam));
-		return bookingClient.findOwnerBookings(userId, state);
+		return bookingClient.findOwnerBookings(userId, state, from, size, cursor);
 	}
-}
\ No newline at end of file
+
+	@GetMapping("/archive")
+	public Mono<ResponseEntity<Object>> getArchivedBookings(@RequestHeader(USER_ID_HEADER) long userId,
+													        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+													        Integer from,
+													        @Positive @RequestParam(name = "size", defaultValue = "10")
+													        Integer size) {
+		return bookingClient.getArchivedBookings(userId, from, size);
+	}
+
+	@GetMapping("/owner/archive")
+	public Mono<ResponseEntity<Object>> findOwnerArchivedBookings(@RequestHeader(USER_ID_HEADER) long userId,
+															      @PositiveOrZero
+															      @RequestParam(name = "from", defaultValue = "0")
+															      Integer from,
+															      @Positive
+															      @RequestParam(name = "size", defaultValue = "10")
+															      Integer size) {
+		return bookingClient.findOwnerArchivedBookings(userId, from, size);
+	}
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+public class CachedResponse {
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final int weight;
+
+    public CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(new HttpHeaders(headers));
+        this.body = body;
+        int headersSize = 0;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            headersSize += header.getKey().length() + header.getValue().stream().mapToInt(String::length).sum();
+        }
+        this.weight = ENTRY_OVERHEAD + 2 * headersSize + body.length;
+    }
+
+    public ClientHttpResponse toClientHttpResponse() {
+        return new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return status;
+            }
+
+            @Override
+            public String getStatusText() {
+                return "";
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+
+@RequiredArgsConstructor
+public class CachingClientHttpRequestFactory implements ClientHttpRequestFactory {
+    private final ClientHttpRequestFactory delegate;
+    private final ResponseCache cache;
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return new CachingClientHttpRequest(delegate.createRequest(uri, httpMethod));
+    }
+
+    @RequiredArgsConstructor
+    private class CachingClientHttpRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+        private final ClientHttpRequest request;
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(request.getBody());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            ResponseCacheKey key = ResponseCache.keyOf(getMethod(), getURI(), getHeaders());
+            if (key == null) {
+                ClientHttpResponse response = request.execute();
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    cache.invalidate(getMethod(), getURI());
+                }
+                return response;
+            }
+
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                return cached.toClientHttpResponse();
+            }
+            long generation = cache.generation();
+            ClientHttpResponse response = request.execute();
+            if (!response.getStatusCode().isSameCodeAs(HttpStatus.OK)) {
+                return response;
+            }
+            CachedResponse loaded;
+            try (response) {
+                loaded = new CachedResponse(response.getStatusCode(), response.getHeaders(),
+                        StreamUtils.copyToByteArray(response.getBody()));
+            }
+            cache.put(key, loaded, generation);
+            return loaded.toClientHttpResponse();
+        }
+    }
+}
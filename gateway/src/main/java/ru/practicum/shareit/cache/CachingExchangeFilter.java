@@ -0,0 +1,61 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class CachingExchangeFilter implements ExchangeFilterFunction {
+    private static final ExchangeStrategies STRATEGIES = ExchangeStrategies.builder()
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+            .build();
+
+    private final ResponseCache cache;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        ResponseCacheKey key = ResponseCache.keyOf(request.method(), request.url(), request.headers());
+        if (key == null) {
+            return next.exchange(request).doOnNext(response -> {
+                if (response.statusCode().is2xxSuccessful()) {
+                    cache.invalidate(request.method(), request.url());
+                }
+            });
+        }
+
+        return Mono.defer(() -> {
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                return Mono.just(toClientResponse(cached));
+            }
+            long generation = cache.generation();
+            return next.exchange(request).flatMap(response -> {
+                if (!response.statusCode().isSameCodeAs(HttpStatus.OK)) {
+                    return Mono.just(response);
+                }
+                return response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> {
+                            CachedResponse loaded = new CachedResponse(response.statusCode(),
+                                    response.headers().asHttpHeaders(), body);
+                            cache.put(key, loaded, generation);
+                            return toClientResponse(loaded);
+                        });
+            });
+        });
+    }
+
+    private static ClientResponse toClientResponse(CachedResponse cached) {
+        return ClientResponse.create(cached.getStatus(), STRATEGIES)
+                .headers(headers -> headers.addAll(cached.getHeaders()))
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(cached.getBody())))
+                .build();
+    }
+}
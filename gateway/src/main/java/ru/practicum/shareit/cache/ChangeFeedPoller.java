@@ -0,0 +1,67 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.cache.dto.ChangeDto;
+import ru.practicum.shareit.cache.dto.ChangeFeedDto;
+
+import java.util.List;
+
+@Slf4j
+public class ChangeFeedPoller implements SchedulingConfigurer {
+    private final RestTemplate rest;
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private long lastSeq = -1;
+    private boolean available = true;
+
+    public ChangeFeedPoller(RestTemplate rest, ResponseCache cache, ResponseCacheProperties properties) {
+        this.rest = rest;
+        this.cache = cache;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(@NonNull ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::poll, properties.getChangesPollInterval());
+    }
+
+    public void poll() {
+        List<ChangeDto> changes;
+        do {
+            ChangeFeedDto feed;
+            try {
+                feed = rest.getForObject("/changes?after={after}&size={size}", ChangeFeedDto.class, lastSeq,
+                        properties.getChangesBatchSize());
+            } catch (RestClientException e) {
+                if (available) {
+                    log.warn("Лента изменений сервера недоступна: {}", e.getMessage());
+                    available = false;
+                }
+                return;
+            }
+            if (!available) {
+                log.info("Лента изменений сервера снова доступна");
+                available = true;
+            }
+            if (feed == null) {
+                return;
+            }
+            if (feed.isReset()) {
+                cache.invalidateAll();
+                lastSeq = feed.getLastSeq();
+                return;
+            }
+            changes = feed.getChanges();
+            changes.forEach(change -> cache.invalidate(change.getType(), change.getId(), change.getItemId(),
+                    change.getItemOwnerId()));
+            if (!changes.isEmpty()) {
+                lastSeq = changes.get(changes.size() - 1).getSeq();
+            }
+        } while (changes.size() >= properties.getChangesBatchSize());
+    }
+}
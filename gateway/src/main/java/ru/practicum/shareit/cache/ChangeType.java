@@ -0,0 +1,51 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Бронирования и отзывы с известной вещью затрагивают только ответы этой вещи и списки ее владельца.
+@Getter
+public enum ChangeType {
+    ITEM("items", Set.of("requests"), false),
+    BOOKING(null, Set.of("items"), true),
+    USER("users", Set.of("items", "requests"), false),
+    COMMENT(null, Set.of("items"), true),
+    REQUEST("requests", Set.of(), false);
+
+    @Nullable
+    private final String resource;
+    private final Set<String> dependents;
+    private final boolean itemScoped;
+
+    ChangeType(@Nullable String resource, Set<String> dependents, boolean itemScoped) {
+        this.resource = resource;
+        this.dependents = dependents;
+        this.itemScoped = itemScoped;
+    }
+
+    public static Optional<ChangeType> ofPath(List<String> segments) {
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        return switch (segments.get(0)) {
+            case "items" -> Optional.of(segments.size() > 2 && segments.get(2).equals("comment") ? COMMENT : ITEM);
+            case "bookings" -> Optional.of(BOOKING);
+            case "users" -> Optional.of(USER);
+            case "requests" -> Optional.of(REQUEST);
+            default -> Optional.empty();
+        };
+    }
+
+    static boolean isCacheable(String resource) {
+        for (ChangeType type : values()) {
+            if (resource.equals(type.resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,226 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ответ, загрузка которого началась до инвалидации, не кэшируется: это отслеживает счетчик поколений.
+@Slf4j
+public class ResponseCache {
+    public static final String NAME = "shareit-server-responses";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String ITEMS = "items";
+
+    private final Cache<ResponseCacheKey, CachedResponse> cache;
+    private final Map<String, ResourceKeys> index = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((ResponseCacheKey key, CachedResponse response) ->
+                        2 * key.getUri().length() + response.getWeight())
+                .expireAfterWrite(properties.getTtl())
+                .evictionListener((ResponseCacheKey key, CachedResponse response, RemovalCause cause) -> {
+                    if (key != null) {
+                        unindex(key);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Nullable
+    public static ResponseCacheKey keyOf(HttpMethod method, URI uri, HttpHeaders headers) {
+        if (!HttpMethod.GET.equals(method)) {
+            return null;
+        }
+        List<String> segments = segments(uri);
+        if (segments.isEmpty() || !ChangeType.isCacheable(segments.get(0))) {
+            return null;
+        }
+        Long id = segments.size() > 1 && segments.get(1).chars().allMatch(Character::isDigit)
+                ? Long.valueOf(segments.get(1))
+                : null;
+        return new ResponseCacheKey(segments.get(0), id, uri.toString(), headers.getFirst(USER_ID_HEADER));
+    }
+
+    @Nullable
+    public CachedResponse get(ResponseCacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    // Поколение нужно запомнить до отправки запроса и передать в put.
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(ResponseCacheKey key, CachedResponse response, long loadedAt) {
+        if (generation.get() != loadedAt) {
+            return;
+        }
+        cache.put(key, response);
+        index.computeIfAbsent(key.getResource(), resource -> new ResourceKeys()).add(key);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidate(ChangeType type, @Nullable Long id) {
+        invalidate(type, id, null, null);
+    }
+
+    public void invalidate(ChangeType type, @Nullable Long id, @Nullable Long itemId, @Nullable Long itemOwnerId) {
+        generation.incrementAndGet();
+        if (type.isItemScoped() && itemId != null) {
+            ResourceKeys items = index.get(ITEMS);
+            if (items != null) {
+                cache.invalidateAll(items.removeId(itemId));
+                cache.invalidateAll(itemOwnerId != null
+                        ? items.removeListing(String.valueOf(itemOwnerId))
+                        : items.removeListings());
+            }
+            return;
+        }
+        type.getDependents().forEach(resource -> {
+            ResourceKeys keys = index.get(resource);
+            if (keys != null) {
+                cache.invalidateAll(keys.removeAll());
+            }
+        });
+        ResourceKeys keys = type.getResource() != null ? index.get(type.getResource()) : null;
+        if (keys != null) {
+            cache.invalidateAll(id != null ? keys.removeId(id) : keys.removeAll());
+            cache.invalidateAll(keys.removeListings());
+        }
+    }
+
+    public void invalidate(HttpMethod method, URI uri) {
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return;
+        }
+        List<String> segments = segments(uri);
+        ChangeType.ofPath(segments).ifPresent(type -> {
+            Long id = segments.size() > 1 && segments.get(1).chars().allMatch(Character::isDigit)
+                    ? Long.valueOf(segments.get(1))
+                    : null;
+            if (type == ChangeType.COMMENT) {
+                invalidate(type, null, id, null);
+            } else {
+                invalidate(type, id);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        index.clear();
+        cache.invalidateAll();
+        log.info("Кэш ответов сервера сброшен");
+    }
+
+    public Cache<ResponseCacheKey, CachedResponse> getCache() {
+        return cache;
+    }
+
+    private void unindex(ResponseCacheKey key) {
+        ResourceKeys keys = index.get(key.getResource());
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    private static List<String> segments(URI uri) {
+        String path = uri.getPath();
+        if (path == null) {
+            return List.of();
+        }
+        return Arrays.stream(path.split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toList();
+    }
+
+    private static class ResourceKeys {
+        private final Map<Long, Set<ResponseCacheKey>> byId = new ConcurrentHashMap<>();
+        private final Map<String, Set<ResponseCacheKey>> listings = new ConcurrentHashMap<>();
+
+        void add(ResponseCacheKey key) {
+            if (key.getId() != null) {
+                add(byId, key.getId(), key);
+            } else {
+                add(listings, listingOwner(key), key);
+            }
+        }
+
+        void remove(ResponseCacheKey key) {
+            if (key.getId() != null) {
+                remove(byId, key.getId(), key);
+            } else {
+                remove(listings, listingOwner(key), key);
+            }
+        }
+
+        Set<ResponseCacheKey> removeId(Long id) {
+            Set<ResponseCacheKey> keys = byId.remove(id);
+            return keys != null ? keys : Set.of();
+        }
+
+        Set<ResponseCacheKey> removeListing(String userId) {
+            Set<ResponseCacheKey> keys = listings.remove(userId);
+            return keys != null ? keys : Set.of();
+        }
+
+        Set<ResponseCacheKey> removeListings() {
+            return removeScopes(listings);
+        }
+
+        Set<ResponseCacheKey> removeAll() {
+            Set<ResponseCacheKey> keys = removeScopes(byId);
+            keys.addAll(removeScopes(listings));
+            return keys;
+        }
+
+        private static String listingOwner(ResponseCacheKey key) {
+            return key.getUserId() != null ? key.getUserId() : "";
+        }
+
+        private static <K> void add(Map<K, Set<ResponseCacheKey>> scopes, K scope, ResponseCacheKey key) {
+            scopes.compute(scope, (s, keys) -> {
+                Set<ResponseCacheKey> scopeKeys = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                scopeKeys.add(key);
+                return scopeKeys;
+            });
+        }
+
+        private static <K> void remove(Map<K, Set<ResponseCacheKey>> scopes, K scope, ResponseCacheKey key) {
+            scopes.computeIfPresent(scope, (s, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+
+        private static <K> Set<ResponseCacheKey> removeScopes(Map<K, Set<ResponseCacheKey>> scopes) {
+            Set<ResponseCacheKey> keys = new HashSet<>();
+            scopes.keySet().forEach(scope -> {
+                Set<ResponseCacheKey> scopeKeys = scopes.remove(scope);
+                if (scopeKeys != null) {
+                    keys.addAll(scopeKeys);
+                }
+            });
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache shareItServerResponseCache(ResponseCacheProperties properties) {
+        return new ResponseCache(properties);
+    }
+
+    @Bean
+    public MeterBinder shareItServerResponseCacheMetrics(ResponseCache shareItServerResponseCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, shareItServerResponseCache.getCache(),
+                ResponseCache.NAME);
+    }
+
+    @Bean
+    public ChangeFeedPoller shareItServerChangeFeedPoller(@Value("${shareit-server.url}") String serverUrl,
+                                                          RestTemplateBuilder builder,
+                                                          ClientHttpRequestFactory requestFactory,
+                                                          ResponseCache shareItServerResponseCache,
+                                                          ResponseCacheProperties properties) {
+        return new ChangeFeedPoller(builder.rootUri(serverUrl).requestFactory(() -> requestFactory).build(),
+                shareItServerResponseCache, properties);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+
+@Value
+public class ResponseCacheKey {
+    String resource;
+    Long id;
+    String uri;
+    String userId;
+}
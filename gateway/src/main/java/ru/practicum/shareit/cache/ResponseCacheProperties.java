@@ -0,0 +1,17 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private Duration ttl = Duration.ofSeconds(30);
+    private Duration changesPollInterval = Duration.ofSeconds(1);
+    private int changesBatchSize = 1000;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.cache.ChangeType;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeDto {
+    private long seq;
+    private ChangeType type;
+    private Long id;
+    private Long itemId;
+    private Long itemOwnerId;
+
+    public ChangeDto(long seq, ChangeType type, Long id) {
+        this(seq, type, id, null, null);
+    }
+}
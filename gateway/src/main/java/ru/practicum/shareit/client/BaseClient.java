@@ -1,82 +1,182 @@
 package ru.practicum.shareit.client;
 
+import lombok.Value;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 public class BaseClient {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final List<String> RELAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER,
+            NEXT_CURSOR_HEADER);
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(\\d+|\\{[^/}]+})(?=/|$)");
+
     protected final RestTemplate rest;
+    private final Map<FlightKey, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    @Nullable
+    private final WebClient web;
+    private final boolean passthrough;
+    @Nullable
+    private final ShareItServerResilience resilience;
+    private final String basePath;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, false);
+    }
+
+    public BaseClient(RestTemplate rest, boolean passthrough) {
+        this(rest, null, passthrough);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, boolean passthrough) {
+        this(rest, web, passthrough, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, boolean passthrough,
+                      @Nullable ShareItServerResilience resilience) {
         this.rest = rest;
+        this.web = web;
+        this.passthrough = passthrough;
+        this.resilience = resilience;
+        this.basePath = resilience != null ? basePath(rest) : "";
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId, ifNoneMatch);
+        Mono<ResponseEntity<Object>> call;
+        if (web != null) {
+            call = exchange(web, method, path, headers, parameters, body);
+            if (resilience != null) {
+                call = resilience.protect(endpoint(method, path), method, call);
+            }
+        } else if (resilience != null) {
+            call = resilience.protect(endpoint(method, path), method,
+                    () -> send(method, path, headers, parameters, body));
+        } else {
+            call = Mono.fromSupplier(() -> send(method, path, headers, parameters, body));
+        }
+        if (!HttpMethod.GET.equals(method)) {
+            return call;
+        }
+        return coalesce(new FlightKey(path, parameters, userId, ifNoneMatch), call);
+    }
+
+    // Одинаковые GET-запросы, пришедшие во время выполнения такого же, получают его ответ.
+    private Mono<ResponseEntity<Object>> coalesce(FlightKey key, Mono<ResponseEntity<Object>> call) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> call
+                .doFinally(signal -> inFlight.remove(k))
+                .cache()));
+    }
+
+    private static String basePath(RestTemplate rest) {
+        String path = rest.getUriTemplateHandler().expand("").getPath();
+        return path != null ? path : "";
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private String endpoint(HttpMethod method, String path) {
+        int query = path.indexOf('?');
+        String template = ID_SEGMENT.matcher(query >= 0 ? path.substring(0, query) : path).replaceAll("/{id}");
+        return method.name() + " " + basePath + template;
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(WebClient web, HttpMethod method, String path,
+                                                      HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                                                      @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> {
+                    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.statusCode())
+                            .headers(relayedHeaders(response.headers().asHttpHeaders()));
+                    return response.bodyToMono(byte[].class)
+                            .<ResponseEntity<Object>>map(responseBuilder::body)
+                            .defaultIfEmpty(responseBuilder.build());
+                });
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                            @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        if (passthrough) {
+            return relay(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -92,13 +192,48 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private <T> ResponseEntity<Object> relay(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                             HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            shareitServerResponse = parameters != null
+                    ? rest.exchange(path, method, requestEntity, byte[].class, parameters)
+                    : rest.exchange(path, method, requestEntity, byte[].class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(relayedHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(shareitServerResponse.getStatusCode())
+                .headers(relayedHeaders(shareitServerResponse.getHeaders()));
+        return shareitServerResponse.hasBody()
+                ? responseBuilder.body(shareitServerResponse.getBody())
+                : responseBuilder.build();
+    }
+
+    private static HttpHeaders relayedHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            RELAYED_HEADERS.forEach(name -> {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
         return headers;
     }
 
@@ -107,7 +242,8 @@ public class BaseClient {
             return response;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(relayedHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -115,4 +251,12 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    @Value
+    private static class FlightKey {
+        String path;
+        Map<String, Object> parameters;
+        Long userId;
+        String ifNoneMatch;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class LatencyTracker {
+    private static final int SAMPLES = 256;
+    private static final long REFRESH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong nextRefresh;
+    private final double percentile;
+    private final int minSamples;
+    private volatile long value = -1;
+
+    LatencyTracker(double percentile, int minSamples, long now) {
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, SAMPLES);
+        this.nextRefresh = new AtomicLong(now);
+    }
+
+    void record(long nanos) {
+        samples.set((int) (recorded.getAndIncrement() % SAMPLES), nanos);
+    }
+
+    // -1, пока ответов слишком мало.
+    long percentile(long now) {
+        long refreshAt = nextRefresh.get();
+        boolean due = now - refreshAt >= 0 || value < 0 && recorded.get() >= minSamples;
+        if (due && nextRefresh.compareAndSet(refreshAt, now + REFRESH_INTERVAL)) {
+            int count = (int) Math.min(recorded.get(), SAMPLES);
+            if (count >= minSamples) {
+                long[] sorted = new long[count];
+                for (int i = 0; i < count; i++) {
+                    sorted[i] = samples.get(i);
+                }
+                Arrays.sort(sorted);
+                value = sorted[Math.max(0, (int) Math.ceil(percentile * count) - 1)];
+            }
+        }
+        return value;
+    }
+}
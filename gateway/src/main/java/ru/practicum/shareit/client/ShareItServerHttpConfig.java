@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.cache.CachingClientHttpRequestFactory;
+import ru.practicum.shareit.cache.CachingExchangeFilter;
+import ru.practicum.shareit.cache.ResponseCache;
+
+import java.util.Optional;
+
+@Configuration
+@EnableConfigurationProperties(ShareItServerHttpProperties.class)
+public class ShareItServerHttpConfig {
+    public static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(
+            ShareItServerHttpProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                       ShareItServerHttpProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getEvictIdleAfter()))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient shareItServerHttpClient,
+                                                                Optional<ResponseCache> responseCache) {
+        ClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+        return responseCache
+                .<ClientHttpRequestFactory>map(cache -> new CachingClientHttpRequestFactory(requestFactory, cache))
+                .orElse(requestFactory);
+    }
+
+    @Bean
+    public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "shareit-server.reactive", havingValue = "true")
+    public ConnectionProvider shareItServerConnectionProvider(ShareItServerHttpProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getEvictIdleAfter())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getEvictIdleAfter())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.reactive", havingValue = "true")
+    public WebClientCustomizer shareItServerWebClientCustomizer(ConnectionProvider shareItServerConnectionProvider,
+                                                                ShareItServerHttpProperties properties,
+                                                                Optional<ResponseCache> responseCache) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return builder -> {
+            builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+            responseCache.ifPresent(cache -> builder.filter(new CachingExchangeFilter(cache)));
+        };
+    }
+}
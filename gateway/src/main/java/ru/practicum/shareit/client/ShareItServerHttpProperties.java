@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ShareItServerHttpProperties {
+    private int maxTotal = 200;
+    private int maxPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    private Duration timeToLive = Duration.ofMinutes(5);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration evictIdleAfter = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
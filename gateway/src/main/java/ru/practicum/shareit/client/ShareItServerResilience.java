@@ -0,0 +1,228 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Slf4j
+public class ShareItServerResilience implements MeterBinder, DisposableBean {
+    public static final String HEDGED_METRIC = "shareit.server.hedged";
+
+    private final ShareItServerResilienceProperties properties;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final LongSupplier clock;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder hedged = new LongAdder();
+    private final Scheduler scheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(),
+            "shareit-server-hedge");
+
+    public ShareItServerResilience(ShareItServerResilienceProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ShareItServerResilience(ShareItServerResilienceProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumCalls())
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .waitDurationInOpenState(properties.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getCallsInHalfOpenState())
+                .recordResult(result -> result instanceof ResponseEntity<?> response
+                        && response.getStatusCode().is5xxServerError())
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    // Разрешение берется и возвращается в потоке запроса: отмененный, но еще идущий запрос занимает место в лимите.
+    public Mono<ResponseEntity<Object>> protect(String endpointName, HttpMethod method,
+                                                Supplier<ResponseEntity<Object>> call) {
+        Endpoint endpoint = endpoint(endpointName);
+        Mono<ResponseEntity<Object>> attempt = Mono.fromCallable(() -> endpoint.execute(call));
+        if (!isHedged(method)) {
+            return attempt.onErrorResume(ShareItServerResilience::isRejection, e -> Mono.just(rejection(e)));
+        }
+        return hedge(endpoint, attempt.subscribeOn(scheduler));
+    }
+
+    public Mono<ResponseEntity<Object>> protect(String endpointName, HttpMethod method,
+                                                Mono<ResponseEntity<Object>> call) {
+        Endpoint endpoint = endpoint(endpointName);
+        Mono<ResponseEntity<Object>> attempt = Mono.defer(() -> endpoint.execute(call));
+        if (!isHedged(method)) {
+            return attempt.onErrorResume(ShareItServerResilience::isRejection, e -> Mono.just(rejection(e)));
+        }
+        return hedge(endpoint, attempt);
+    }
+
+    public CircuitBreaker getCircuitBreaker(String endpointName) {
+        return endpoint(endpointName).circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead(String endpointName) {
+        return endpoint(endpointName).bulkhead;
+    }
+
+    public long getHedged() {
+        return hedged.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+        FunctionCounter.builder(HEDGED_METRIC, hedged, LongAdder::sum)
+                .description("Дублирующие GET-запросы к серверу")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private boolean isHedged(HttpMethod method) {
+        return properties.isHedgeEnabled() && HttpMethod.GET.equals(method);
+    }
+
+    private Mono<ResponseEntity<Object>> hedge(Endpoint endpoint, Mono<ResponseEntity<Object>> attempt) {
+        Mono<ResponseEntity<Object>> primary = attempt
+                .onErrorResume(ShareItServerResilience::isRejection, e -> Mono.just(rejection(e)));
+        return Mono.defer(() -> {
+            long delay = endpoint.latency.percentile(clock.getAsLong());
+            if (delay < 0) {
+                return primary;
+            }
+            Mono<ResponseEntity<Object>> secondary = Mono.delay(Duration.ofNanos(Math.max(delay,
+                            properties.getHedgeMinDelay().toNanos())))
+                    .filter(tick -> endpoint.canHedge())
+                    .flatMap(tick -> {
+                        hedged.increment();
+                        log.debug("Ответ эндпоинта {} задерживается дольше {} мс, запрос продублирован.",
+                                endpoint.circuitBreaker.getName(), TimeUnit.NANOSECONDS.toMillis(delay));
+                        return attempt;
+                    })
+                    .filter(response -> !response.getStatusCode().is5xxServerError())
+                    .onErrorResume(e -> Mono.empty())
+                    .switchIfEmpty(Mono.never());
+            return Mono.firstWithSignal(primary, secondary);
+        });
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint(circuitBreakers.circuitBreaker(key),
+                bulkheads.bulkhead(key), new LatencyTracker(properties.getHedgePercentile(),
+                properties.getHedgeMinSamples(), clock.getAsLong())));
+    }
+
+    private static boolean isRejection(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    private ResponseEntity<Object> rejection(Throwable e) {
+        if (e instanceof CallNotPermittedException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L,
+                            properties.getWaitInOpenState().toSeconds())))
+                    .body(Map.of("error", "Сервер временно недоступен, повторите запрос позже."));
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Сервер перегружен запросами, повторите запрос позже."));
+    }
+
+    @RequiredArgsConstructor
+    private class Endpoint {
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final LatencyTracker latency;
+
+        ResponseEntity<Object> execute(Supplier<ResponseEntity<Object>> call) {
+            acquire();
+            long start = clock.getAsLong();
+            try {
+                ResponseEntity<Object> response = call.get();
+                onResult(start, response);
+                return response;
+            } catch (RuntimeException e) {
+                circuitBreaker.onError(clock.getAsLong() - start, TimeUnit.NANOSECONDS, e);
+                throw e;
+            } finally {
+                bulkhead.onComplete();
+            }
+        }
+
+        Mono<ResponseEntity<Object>> execute(Mono<ResponseEntity<Object>> call) {
+            acquire();
+            long start = clock.getAsLong();
+            return call
+                    .doOnSuccess(response -> onResult(start, response))
+                    .doOnError(e -> circuitBreaker.onError(clock.getAsLong() - start, TimeUnit.NANOSECONDS, e))
+                    .doOnCancel(circuitBreaker::releasePermission)
+                    .doFinally(signal -> bulkhead.onComplete());
+        }
+
+        boolean canHedge() {
+            return circuitBreaker.getState() == CircuitBreaker.State.CLOSED
+                    && bulkhead.getMetrics().getAvailableConcurrentCalls() * 2 > properties.getMaxConcurrentCalls();
+        }
+
+        private void acquire() {
+            circuitBreaker.acquirePermission();
+            try {
+                bulkhead.acquirePermission();
+            } catch (BulkheadFullException e) {
+                circuitBreaker.releasePermission();
+                throw e;
+            }
+        }
+
+        private void onResult(long start, ResponseEntity<Object> response) {
+            long duration = clock.getAsLong() - start;
+            if (response == null) {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                return;
+            }
+            circuitBreaker.onResult(duration, TimeUnit.NANOSECONDS, response);
+            if (!response.getStatusCode().is5xxServerError()) {
+                latency.record(duration);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ShareItServerResilienceProperties.class)
+@ConditionalOnProperty(name = "shareit-server.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ShareItServerResilienceConfig {
+
+    @Bean
+    public ShareItServerResilience shareItServerResilience(ShareItServerResilienceProperties properties) {
+        return new ShareItServerResilience(properties);
+    }
+}
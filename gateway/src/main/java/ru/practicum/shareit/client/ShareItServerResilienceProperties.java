@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ShareItServerResilienceProperties {
+    private boolean enabled = true;
+    private int maxConcurrentCalls = 50;
+    private float failureRateThreshold = 50;
+    private Duration slowCallDuration = Duration.ofSeconds(5);
+    private float slowCallRateThreshold = 80;
+    private int slidingWindowSize = 50;
+    private int minimumCalls = 20;
+    private Duration waitInOpenState = Duration.ofSeconds(10);
+    private int callsInHalfOpenState = 5;
+    private boolean hedgeEnabled = false;
+    private double hedgePercentile = 0.95;
+    private Duration hedgeMinDelay = Duration.ofMillis(20);
+    private int hedgeMinSamples = 20;
+}
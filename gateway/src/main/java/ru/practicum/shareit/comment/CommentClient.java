@@ -5,10 +5,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerResilience;
+
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -16,16 +21,23 @@ public class CommentClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public CommentClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public CommentClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                         @Value("${shareit-server.passthrough}") boolean passthrough,
+                         @Value("${shareit-server.reactive}") boolean reactive,
+                         Optional<ShareItServerResilience> resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                reactive ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                passthrough,
+                resilience.orElse(null)
         );
     }
 
-    public ResponseEntity<Object> addComment(long itemId, long userId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(long itemId, long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
\ No newline at end of file
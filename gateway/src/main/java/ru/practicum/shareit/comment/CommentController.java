@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Validated
@@ -18,9 +19,9 @@ public class CommentController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable("itemId") @Positive long itemId,
-                                             @RequestHeader(value = USER_ID_HEADER) @Positive long userId,
-                                             @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable("itemId") @Positive long itemId,
+                                                   @RequestHeader(value = USER_ID_HEADER) @Positive long userId,
+                                                   @Valid @RequestBody CommentDto commentDto) {
         return commentClient.addComment(itemId, userId, commentDto);
     }
 }
@@ -1,17 +1,32 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerResilience;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -19,24 +34,48 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                      @Value("${shareit-server.passthrough}") boolean passthrough,
+                      @Value("${shareit-server.reactive}") boolean reactive,
+                      Optional<ShareItServerResilience> resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                reactive ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                passthrough,
+                resilience.orElse(null)
         );
     }
 
-    public ResponseEntity<Object> createNewItem(ItemDto itemDto, Long userOwnerId) {
+    public Mono<ResponseEntity<Object>> createNewItem(ItemDto itemDto, Long userOwnerId) {
         return post("", userOwnerId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long id, Long userId) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Long id, Long userId, String ifNoneMatch) {
+        return get("/" + id, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItemsOfUserById(int from, int size, Long userOwnerId) {
+    public Mono<ResponseEntity<Object>> getItemAvailability(Long id, Long userId, LocalDateTime from,
+                                                            LocalDateTime to, String granularity,
+                                                            String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/" + id + "/availability?granularity={granularity}");
+        parameters.put("granularity", granularity);
+        if (from != null) {
+            path.append("&from={from}");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            path.append("&to={to}");
+            parameters.put("to", to);
+        }
+        return get(path.toString(), userId, parameters, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemsOfUserById(int from, int size, Long userOwnerId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -44,21 +83,50 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userOwnerId, parameters);
     }
 
-    public ResponseEntity<Object> deleteItemOfUserById(Long id, Long userOwnerId) {
+    public Mono<ResponseEntity<Object>> deleteItemOfUserById(Long id, Long userOwnerId) {
         return delete("/" + id, userOwnerId);
     }
 
-    public ResponseEntity<Object> updateItemOfUserById(Long id, ItemDto itemDto, Long userOwnerId) {
+    public Mono<ResponseEntity<Object>> updateItemOfUserById(Long id, ItemDto itemDto, Long userOwnerId) {
         return patch("/" + id, userOwnerId, itemDto);
     }
 
-    public ResponseEntity<Object> findItemsOfUser(int from, int size, String searchText, Long userId) {
+    public Mono<ResponseEntity<Object>> findItemsOfUser(int from, int size, String searchText, boolean fuzzy,
+                                                        Long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", searchText,
+                "fuzzy", fuzzy,
                 "from", from,
                 "size", size
         );
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&fuzzy={fuzzy}&from={from}&size={size}", userId, parameters);
+    }
+
+    public void importItems(InputStream body, MediaType contentType, Long userOwnerId, HttpServletResponse response)
+            throws IOException {
+        try {
+            rest.execute("/import", HttpMethod.POST, request -> {
+                request.getHeaders().setContentType(contentType);
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userOwnerId));
+                if (request instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(out -> StreamUtils.copy(body, out));
+                } else {
+                    StreamUtils.copy(body, request.getBody());
+                }
+            }, serverResponse -> {
+                response.setStatus(serverResponse.getStatusCode().value());
+                MediaType responseType = serverResponse.getHeaders().getContentType();
+                if (responseType != null) {
+                    response.setContentType(responseType.toString());
+                }
+                StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getStatusCode().value());
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
     }
-}
\ No newline at end of file
+}
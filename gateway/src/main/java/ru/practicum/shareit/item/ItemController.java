@@ -1,16 +1,26 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+
 @Slf4j
 @Validated
 @RestController
@@ -21,7 +31,7 @@ public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @GetMapping
-    public ResponseEntity<Object> getItemsOfUser(
+    public Mono<ResponseEntity<Object>> getItemsOfUser(
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "10", required = false) @Positive int size,
             @RequestHeader(value = USER_ID_HEADER) Long userId) {
@@ -29,38 +39,58 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItem(@PathVariable Long id,
-                                          @RequestHeader(value = USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable Long id,
+                                                @RequestHeader(value = USER_ID_HEADER) Long userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        return itemClient.getItemById(id, userId, ifNoneMatch);
+    }
 
-        return itemClient.getItemById(id, userId);
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DAY") @Pattern(regexp = "(?i)HOUR|DAY",
+                    message = "Шаг календаря может быть HOUR или DAY") String granularity,
+            @RequestHeader(value = USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItemAvailability(id, userId, from, to, granularity, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@Valid @RequestBody ItemDto itemDto,
-                                              @RequestHeader(value = USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> createItem(@Valid @RequestBody ItemDto itemDto,
+                                                   @RequestHeader(value = USER_ID_HEADER) Long userId) {
 
         return itemClient.createNewItem(itemDto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(HttpServletRequest request, @RequestHeader(value = USER_ID_HEADER) Long userId,
+                            HttpServletResponse response) throws IOException {
+        itemClient.importItems(request.getInputStream(), MediaType.parseMediaType(request.getContentType()), userId,
+                response);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<?> updateItem(@PathVariable Long id, @RequestBody ItemDto itemDto,
-                                        @RequestHeader(value = USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable Long id, @RequestBody ItemDto itemDto,
+                                                   @RequestHeader(value = USER_ID_HEADER) Long userId) {
         return itemClient.updateItemOfUserById(id, itemDto, userId);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteItem(@PathVariable Long id,
-                                        @RequestHeader(value = USER_ID_HEADER) Long userId) {
-        itemClient.deleteItemOfUserById(id, userId);
-        return new ResponseEntity<>(HttpStatus.OK);
+    public Mono<ResponseEntity<Object>> deleteItem(@PathVariable Long id,
+                                                   @RequestHeader(value = USER_ID_HEADER) Long userId) {
+        return itemClient.deleteItemOfUserById(id, userId).thenReturn(new ResponseEntity<>(HttpStatus.OK));
     }
 
     @GetMapping("/search")
-        public ResponseEntity<Object> searchItem(
+        public Mono<ResponseEntity<Object>> searchItem(
         @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
         @RequestParam(defaultValue = "10", required = false) @Positive int size,
         @RequestParam(name = "text") String text,
+        @RequestParam(defaultValue = "false", required = false) boolean fuzzy,
         @RequestHeader(value = USER_ID_HEADER) Long userId) {
-            return itemClient.findItemsOfUser(from, size, text, userId);
+            return itemClient.findItemsOfUser(from, size, text, fuzzy, userId);
     }
 }
\ No newline at end of file
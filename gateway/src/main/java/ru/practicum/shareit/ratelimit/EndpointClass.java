@@ -0,0 +1,22 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+// В SEARCH попадают тяжелые чтения: поиск и архив бронирований.
+public enum EndpointClass {
+    READ,
+    WRITE,
+    SEARCH;
+
+    public static EndpointClass of(String method, String path) {
+        if (path.endsWith("/search") || path.endsWith("/archive")) {
+            return SEARCH;
+        }
+        HttpMethod httpMethod = HttpMethod.valueOf(method.toUpperCase());
+        if (HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod)
+                || HttpMethod.OPTIONS.equals(httpMethod)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "shareit-server.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter shareItGatewayRateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties);
+    }
+
+    @Bean
+    public WebMvcConfigurer shareItGatewayRateLimitConfigurer(RateLimiter shareItGatewayRateLimiter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RateLimitInterceptor(shareItGatewayRateLimiter))
+                        .excludePathPatterns("/batch");
+            }
+        };
+    }
+}
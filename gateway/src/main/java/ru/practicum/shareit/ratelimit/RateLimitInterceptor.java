@@ -0,0 +1,43 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String client = RateLimiter.clientOf(request);
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        long wait = rateLimiter.tryAcquire(client, endpointClass);
+        if (wait == 0) {
+            return true;
+        }
+        long retryAfter = RateLimiter.retryAfterSeconds(wait);
+        log.debug("Запрос {} {} клиента {} отклонен, повтор через {} с.", request.getMethod(),
+                request.getRequestURI(), client, retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + RateLimiter.throttledMessage(retryAfter) + "\"}");
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Limit read = new Limit(100, 50);
+    private Limit write = new Limit(30, 10);
+    private Limit search = new Limit(20, 5);
+    private Duration idleExpiry = Duration.ofMinutes(10);
+    private long maxClients = 100_000;
+
+    public Limit limit(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case READ -> read;
+            case WRITE -> write;
+            case SEARCH -> search;
+        };
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Limit {
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
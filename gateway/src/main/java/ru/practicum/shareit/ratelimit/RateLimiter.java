@@ -0,0 +1,78 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class RateLimiter implements MeterBinder {
+    public static final String THROTTLED_METRIC = "shareit.gateway.throttled";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier clock;
+    private final Map<EndpointClass, Cache<String, TokenBucket>> buckets = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> throttled = new EnumMap<>(EndpointClass.class);
+
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            buckets.put(endpointClass, Caffeine.newBuilder()
+                    .expireAfterAccess(properties.getIdleExpiry())
+                    .maximumSize(properties.getMaxClients())
+                    .build());
+            throttled.put(endpointClass, new LongAdder());
+        }
+    }
+
+    // 0, если запрос можно выполнять, иначе сколько наносекунд ждать.
+    public long tryAcquire(String client, EndpointClass endpointClass) {
+        long now = clock.getAsLong();
+        long wait = buckets.get(endpointClass)
+                .get(client, key -> new TokenBucket(properties.limit(endpointClass), now))
+                .tryAcquire(now);
+        if (wait > 0) {
+            throttled.get(endpointClass).increment();
+        }
+        return wait;
+    }
+
+    public long getThrottled(EndpointClass endpointClass) {
+        return throttled.get(endpointClass).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        throttled.forEach((endpointClass, counter) -> FunctionCounter.builder(THROTTLED_METRIC, counter,
+                        LongAdder::sum)
+                .description("Запросы, отклоненные ограничением частоты")
+                .tag("endpoint", endpointClass.name().toLowerCase())
+                .register(registry));
+    }
+
+    public static String clientOf(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        return userId != null ? userId : request.getRemoteAddr();
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public static String throttledMessage(long retryAfterSeconds) {
+        return "Слишком много запросов, повторите через " + retryAfterSeconds + " с.";
+    }
+}
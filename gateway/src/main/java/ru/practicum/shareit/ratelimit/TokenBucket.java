@@ -0,0 +1,30 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// GCRA: корзина хранится одним числом — моментом, когда она снова станет полной.
+class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+
+    TokenBucket(RateLimitProperties.Limit limit, long now) {
+        this.interval = Math.max(1L, (long) (1_000_000_000L / limit.getRefillPerSecond()));
+        this.tolerance = interval * limit.getCapacity();
+        this.fullAt = new AtomicLong(now);
+    }
+
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
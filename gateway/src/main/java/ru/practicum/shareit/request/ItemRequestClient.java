@@ -5,14 +5,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerResilience;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -20,26 +24,33 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                             @Value("${shareit-server.passthrough}") boolean passthrough,
+                             @Value("${shareit-server.reactive}") boolean reactive,
+                             Optional<ShareItServerResilience> resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                reactive ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                passthrough,
+                resilience.orElse(null)
         );
     }
 
-    public ResponseEntity<Object> createRequest(ItemRequestDto itemRequestDto, Long userId) {
+    public Mono<ResponseEntity<Object>> createRequest(ItemRequestDto itemRequestDto, Long userId) {
 
         return post("", userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllForRequestor(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllForRequestor(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(int from, int size, Long userId) {
+    public Mono<ResponseEntity<Object>> getAll(int from, int size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size);
@@ -47,7 +58,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(long requestId, Long userId, String ifNoneMatch) {
+        return get("/" + requestId, userId, null, ifNoneMatch);
     }
 }
\ No newline at end of file
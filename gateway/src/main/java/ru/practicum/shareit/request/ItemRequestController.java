@@ -5,9 +5,11 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 @Slf4j
@@ -21,18 +23,18 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
-                                                @RequestHeader(value = USER_ID_HEADER) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> createRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+                                                      @RequestHeader(value = USER_ID_HEADER) @Positive Long userId) {
         return itemRequestClient.createRequest(itemRequestDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllForRequestor(@RequestHeader(value = USER_ID_HEADER) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getAllForRequestor(@RequestHeader(value = USER_ID_HEADER) @Positive Long userId) {
         return itemRequestClient.getAllForRequestor(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(
+    public Mono<ResponseEntity<Object>> getAll(
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "20", required = false) @Positive int size,
             @RequestHeader(value = USER_ID_HEADER) @Positive Long userId) {
@@ -40,8 +42,9 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive long requestId,
-                                          @RequestHeader(value = USER_ID_HEADER) @Positive Long userId) {
-        return itemRequestClient.getById(requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(@PathVariable @Positive long requestId,
+                                                @RequestHeader(value = USER_ID_HEADER) @Positive Long userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getById(requestId, userId, ifNoneMatch);
     }
 }
\ No newline at end of file
@@ -4,43 +4,55 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerResilience;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Optional;
+
 @Service
 @Slf4j
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                      @Value("${shareit-server.passthrough}") boolean passthrough,
+                      @Value("${shareit-server.reactive}") boolean reactive,
+                      Optional<ShareItServerResilience> resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                reactive ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                passthrough,
+                resilience.orElse(null)
         );
     }
 
-    public ResponseEntity<Object> createNewUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createNewUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUserById(Long id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getUserById(Long id, String ifNoneMatch) {
+        return get("/" + id, null, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> deleteUserById(Long id) {
+    public Mono<ResponseEntity<Object>> deleteUserById(Long id) {
         return delete("/" + id);
     }
 
-    public ResponseEntity<Object> updateUserById(Long id, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUserById(Long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 }
\ No newline at end of file
@@ -3,11 +3,13 @@ package ru.practicum.shareit.user;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.ArrayList;
@@ -25,39 +27,40 @@ public class UserController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> userCreate(@Valid @RequestBody UserDto userDto, BindingResult bindingResult) {
+    public Mono<ResponseEntity<Object>> userCreate(@Valid @RequestBody UserDto userDto, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             List<String> errors = new ArrayList<>();
             for (FieldError error : bindingResult.getFieldErrors()) {
                 errors.add(error.getDefaultMessage());
             }
 
-            return ResponseEntity.badRequest().body(errors);
+            return Mono.just(ResponseEntity.badRequest().body(errors));
         }
         log.info("Получен POST запрос по эндпоинту /users на добавление User {}.", userDto);
         return userClient.createNewUser(userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable @Positive Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable @Positive Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен GET запрос по эндпоинту /users/{} на получение User с ID {}.", id, id);
-        return userClient.getUserById(id);
+        return userClient.getUserById(id, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> geAllUsers() {
+    public Mono<ResponseEntity<Object>> geAllUsers() {
         log.info("Получен GET запрос по эндпоинту /users на получение всех существующих Users.");
         return userClient.getAllUsers();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive Long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable @Positive Long id) {
         log.info("Получен DELETE запрос по эндпоинту /users/{} на удаление User с ID {}.", id, id);
         return userClient.deleteUserById(id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive Long id, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable @Positive Long id, @RequestBody UserDto userDto) {
         log.info("Получен PATCH запрос по эндпоинту /users/{} на одновление данных User с ID {}.", id, id);
         return userClient.updateUserById(id, userDto);
     }
@@ -0,0 +1,233 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BatchController.class, UserController.class, ItemController.class,
+        BookingController.class, ItemRequestController.class})
+@Import(BatchDispatcher.class)
+class BatchControllerTest {
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @MockBean
+    private ItemRequestClient itemRequestClient;
+
+    private UserDto userDto = UserDto.builder()
+            .id(1L)
+            .name("Aliona")
+            .email("1@mail.com")
+            .build();
+
+    @Test
+    void executeBatchReturnsResultsInOperationOrder() throws Exception {
+        when(userClient.getUserById(eq(1L), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok().eTag("\"u1-0\"").body(userDto)));
+        when(itemClient.getItemsOfUserById(0, 5, 1L))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("[{\"id\":7,\"name\":\"Дрель\"}]".getBytes(StandardCharsets.UTF_8))));
+        when(bookingClient.findOwnerBookings(1L, BookingState.WAITING, 0, 10, null))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
+        when(itemRequestClient.getAllForRequestor(1L))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
+
+        performAsync(batch(
+                operation("user", "GET", "/users/1"),
+                operation("items", "GET", "/items?from=0&size=5"),
+                operation(null, "get", "/bookings/owner?state=waiting"),
+                operation("requests", "GET", "/requests")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].id", is("user")))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].headers.ETag", is("\"u1-0\"")))
+                .andExpect(jsonPath("$[0].body.email", is(userDto.getEmail())))
+                .andExpect(jsonPath("$[1].id", is("items")))
+                .andExpect(jsonPath("$[1].body[0].name", is("Дрель")))
+                .andExpect(jsonPath("$[2].id", is("2")))
+                .andExpect(jsonPath("$[2].status", is(200)))
+                .andExpect(jsonPath("$[3].id", is("requests")))
+                .andExpect(jsonPath("$[3].status", is(200)));
+    }
+
+    @Test
+    void executeBatchValidatesEachOperation() throws Exception {
+        when(userClient.getUserById(eq(1L), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
+
+        performAsync(batch(
+                operation("items", "GET", "/items?size=0"),
+                operation("bookings", "GET", "/bookings?state=unknown"),
+                operation("user", "GET", "/users/1"),
+                new BatchOperationDto("book", "POST", "/bookings", null,
+                        mapper.readTree("{\"itemId\":1,\"start\":\"tomorrow\"}")),
+                operation("missing", "GET", "/missing"),
+                operation("batch", "POST", "/batch")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(400)))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].body.error", is("Неопознаный статус: unknown")))
+                .andExpect(jsonPath("$[2].status", is(200)))
+                .andExpect(jsonPath("$[3].status", is(400)))
+                .andExpect(jsonPath("$[4].status", is(404)))
+                .andExpect(jsonPath("$[5].status", is(400)));
+
+        verify(itemClient, never()).getItemsOfUserById(any(Integer.class), any(Integer.class), any());
+        verify(bookingClient, never()).bookItem(any(Long.class), any());
+    }
+
+    @Test
+    void executeBatchForwardsBodyAndHeaders() throws Exception {
+        when(userClient.createNewUser(userDto))
+                .thenReturn(Mono.just(ResponseEntity.status(201).body(userDto)));
+        when(userClient.getUserById(eq(1L), eq("\"u1-0\"")))
+                .thenReturn(Mono.just(ResponseEntity.status(304).eTag("\"u1-0\"").build()));
+
+        performAsync(batch(
+                new BatchOperationDto("create", "POST", "/users", null, mapper.valueToTree(userDto)),
+                new BatchOperationDto("user", "GET", "/users/1", Map.of(HttpHeaders.IF_NONE_MATCH,
+                        "\"u1-0\""), null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].body.name", is(userDto.getName())))
+                .andExpect(jsonPath("$[1].status", is(304)))
+                .andExpect(jsonPath("$[1].headers.ETag", is("\"u1-0\"")));
+    }
+
+    @Test
+    void executeBatchReturnsNextCursor() throws Exception {
+        when(bookingClient.findOwnerBookings(1L, BookingState.ALL, 0, 2, null))
+                .thenReturn(Mono.just(ResponseEntity.ok().header("X-Next-Cursor", "abc").body(List.of())));
+
+        performAsync(batch(operation("owner", "GET", "/bookings/owner?size=2")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].headers.X-Next-Cursor", is("abc")));
+    }
+
+    @Test
+    void executeBatchRejectsUserOverride() throws Exception {
+        when(userClient.getUserById(eq(1L), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
+
+        performAsync(batch(
+                new BatchOperationDto("other", "GET", "/items?from=0&size=5", Map.of("x-sharer-user-id", "2"),
+                        null),
+                operation("user", "GET", "/users/1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(400)))
+                .andExpect(jsonPath("$[1].status", is(200)));
+
+        verify(itemClient, never()).getItemsOfUserById(any(Integer.class), any(Integer.class), any());
+    }
+
+    @Test
+    void executeBatchRunsOperationsInParallel() throws Exception {
+        Mono<ResponseEntity<Object>> slow = Mono.fromSupplier(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.ok(userDto);
+        });
+        when(userClient.getUserById(any(), isNull())).thenReturn(slow);
+
+        long start = System.nanoTime();
+        performAsync(batch(
+                operation("1", "GET", "/users/1"),
+                operation("2", "GET", "/users/2"),
+                operation("3", "GET", "/users/3"),
+                operation("4", "GET", "/users/4")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertTrue(elapsedMillis < 900, "batch took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void executeEmptyBatch() throws Exception {
+        mvc.perform(post("/batch")
+                        .content(mapper.writeValueAsString(new BatchRequestDto(List.of())))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    private BatchOperationDto operation(String id, String method, String path) {
+        return new BatchOperationDto(id, method, path, null, null);
+    }
+
+    private RequestBuilder batch(BatchOperationDto... operations) throws Exception {
+        return post("/batch")
+                .header("X-Sharer-User-Id", 1L)
+                .content(mapper.writeValueAsString(new BatchRequestDto(List.of(operations))))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON);
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
@@ -8,7 +8,9 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
@@ -16,6 +18,7 @@ import ru.practicum.shareit.booking.dto.BookingState;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -32,6 +35,9 @@ class BookingClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ClientHttpRequestFactory requestFactory;
+
     private BookingClient bookingClient;
 
     private BookingRequestDto bookingRequestDto = BookingRequestDto.builder()
@@ -52,7 +58,8 @@ class BookingClientTest {
         when(builder.uriTemplateHandler(any())).thenReturn(builder);
         when(builder.requestFactory(any(Supplier.class))).thenReturn(builder);
         when(builder.build()).thenReturn(restTemplate);
-        bookingClient = new BookingClient("", builder);
+        bookingClient = new BookingClient("", builder, requestFactory, WebClient.builder(), false, false,
+                Optional.empty());
     }
 
     @Test
@@ -61,7 +68,7 @@ class BookingClientTest {
                 .when(restTemplate.exchange("", HttpMethod.POST, new HttpEntity<>(bookingRequestDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(bookingDto));
-        ResponseEntity<Object> response = bookingClient.bookItem(1L, bookingRequestDto);
+        ResponseEntity<Object> response = bookingClient.bookItem(1L, bookingRequestDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(bookingDto));
     }
@@ -80,7 +87,7 @@ class BookingClientTest {
                         HttpMethod.GET, new HttpEntity<>(null,
                                 defaultHeaders(1L)), Object.class, parameters))
                 .thenReturn(ResponseEntity.ok(bookings));
-        ResponseEntity<Object> response = bookingClient.getBookings(1L, BookingState.WAITING, 0, 10);
+        ResponseEntity<Object> response = bookingClient.getBookings(1L, BookingState.WAITING, 0, 10, null).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(bookings));
     }
@@ -91,7 +98,7 @@ class BookingClientTest {
                 .when(restTemplate.exchange("/2", HttpMethod.GET, new HttpEntity<>(null,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(bookingDto));
-        ResponseEntity<Object> response = bookingClient.getBooking(1L, 2L);
+        ResponseEntity<Object> response = bookingClient.getBooking(1L, 2L, null).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(bookingDto));
     }
@@ -102,7 +109,7 @@ class BookingClientTest {
                 .when(restTemplate.exchange("/2?approved=true", HttpMethod.PATCH, new HttpEntity<>(null,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(bookingDto));
-        ResponseEntity<Object> response = bookingClient.acceptBooking(1L, true, 2L);
+        ResponseEntity<Object> response = bookingClient.acceptBooking(1L, true, 2L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(bookingDto));
     }
@@ -110,14 +117,30 @@ class BookingClientTest {
     @Test
     void findOwnerBookings() {
         Map<String, Object> parameters = Map.of(
-                "state", BookingState.WAITING.name()
+                "state", BookingState.WAITING.name(),
+                "from", 0,
+                "size", 10,
+                "cursor", "cursor"
         );
         List<BookingDto> bookings = List.of(bookingDto);
         Mockito
-                .when(restTemplate.exchange("/owner?state={state}", HttpMethod.GET, new HttpEntity<>(null,
-                        defaultHeaders(1L)), Object.class, parameters))
+                .when(restTemplate.exchange("/owner?state={state}&from={from}&size={size}&cursor={cursor}",
+                        HttpMethod.GET, new HttpEntity<>(null, defaultHeaders(1L)), Object.class, parameters))
+                .thenReturn(ResponseEntity.ok(bookings));
+        ResponseEntity<Object> response = bookingClient.findOwnerBookings(1L, BookingState.WAITING, 0, 10,
+                "cursor").block();
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), equalTo(bookings));
+    }
+
+    @Test
+    void testGetArchivedBookings() {
+        List<BookingDto> bookings = List.of(bookingDto);
+        Mockito
+                .when(restTemplate.exchange("/owner/archive?from={from}&size={size}", HttpMethod.GET,
+                        new HttpEntity<>(null, defaultHeaders(1L)), Object.class, Map.of("from", 20, "size", 10)))
                 .thenReturn(ResponseEntity.ok(bookings));
-        ResponseEntity<Object> response = bookingClient.findOwnerBookings(1L, BookingState.WAITING);
+        ResponseEntity<Object> response = bookingClient.findOwnerArchivedBookings(1L, 20, 10).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(bookings));
     }
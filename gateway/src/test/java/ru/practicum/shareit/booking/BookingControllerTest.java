@@ -8,6 +8,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
@@ -21,6 +25,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -50,7 +56,7 @@ class BookingControllerTest {
     @Test
     void saveNewBooking() throws Exception {
         when(bookingClient.bookItem(1L, bookingRequestDto))
-                .thenReturn(ResponseEntity.ok(bookingDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(bookingDto)));
 
         mvc.perform(post("/bookings")
                         .content(mapper.writeValueAsString(bookingRequestDto))
@@ -64,9 +70,9 @@ class BookingControllerTest {
     @Test
     void acceptBooking() throws Exception {
         when(bookingClient.acceptBooking(1L, true, 2L))
-                .thenReturn(ResponseEntity.ok(bookingDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(bookingDto)));
 
-        mvc.perform(patch("/bookings/2?approved=true")
+        performAsync(patch("/bookings/2?approved=true")
                         .content(mapper.writeValueAsString(bookingRequestDto))
                         .header("X-Sharer-User-Id", 1L)
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -79,10 +85,10 @@ class BookingControllerTest {
 
     @Test
     void findBooking() throws Exception {
-        when(bookingClient.getBooking(1L, 2L))
-                .thenReturn(ResponseEntity.ok(bookingDto));
+        when(bookingClient.getBooking(1L, 2L, null))
+                .thenReturn(Mono.just(ResponseEntity.ok(bookingDto)));
 
-        mvc.perform(get("/bookings/2")
+        performAsync(get("/bookings/2")
                         .header("X-Sharer-User-Id", 1L)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -92,12 +98,26 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    void findArchivedBookings() throws Exception {
+        when(bookingClient.getArchivedBookings(1L, 0, 10))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(bookingDto))));
+
+        performAsync(get("/bookings/archive")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
     @Test
     void findBookings() throws Exception {
-        when(bookingClient.getBookings(1L, BookingState.ALL, 0, 10))
-                .thenReturn(ResponseEntity.ok(List.of(bookingDto)));
+        when(bookingClient.getBookings(1L, BookingState.ALL, 0, 10, null))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(bookingDto))));
 
-        mvc.perform(get("/bookings")
+        performAsync(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -109,10 +129,10 @@ class BookingControllerTest {
 
     @Test
     void findOwnerBookings() throws Exception {
-        when(bookingClient.findOwnerBookings(1L, BookingState.ALL))
-                .thenReturn(ResponseEntity.ok(List.of(bookingDto)));
+        when(bookingClient.findOwnerBookings(1L, BookingState.ALL, 0, 10, null))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(bookingDto))));
 
-        mvc.perform(get("/bookings/owner")
+        performAsync(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -121,4 +141,11 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
-}
\ No newline at end of file
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.cache.dto.ChangeDto;
+import ru.practicum.shareit.cache.dto.ChangeFeedDto;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedPollerTest {
+    private static final String CHANGES = "/changes?after={after}&size={size}";
+
+    @Mock
+    private RestTemplate rest;
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private ResponseCache cache;
+    private ChangeFeedPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChangesBatchSize(2);
+        cache = new ResponseCache(properties);
+        poller = new ChangeFeedPoller(rest, cache, properties);
+    }
+
+    @Test
+    void testFirstPollResynchronizesAndLaterPollsApplyChangesPageByPage() {
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, -1L, 2))
+                .thenReturn(feed(3, true));
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, 3L, 2))
+                .thenReturn(feed(6, false, new ChangeDto(4, ChangeType.ITEM, 1L),
+                        new ChangeDto(5, ChangeType.USER, 2L)));
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, 5L, 2))
+                .thenReturn(feed(6, false, new ChangeDto(6, ChangeType.REQUEST, 3L)));
+
+        poller.poll();
+        store("/items/1", "/items/2", "/users/1", "/users/2", "/requests/3", "/requests/4");
+        poller.poll();
+
+        Assertions.assertEquals(List.of("/users/1"), cached("/items/1", "/items/2", "/users/1",
+                "/users/2", "/requests/3", "/requests/4"));
+    }
+
+    @Test
+    void testBookingChangeInvalidatesOnlyItsItem() {
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, -1L, 2)).thenReturn(feed(3, true));
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, 3L, 2))
+                .thenReturn(feed(4, false, new ChangeDto(4, ChangeType.BOOKING, 9L, 1L, 5L)));
+
+        poller.poll();
+        store("/items/1", "/items/2", "/items");
+        poller.poll();
+
+        Assertions.assertEquals(List.of("/items/2", "/items"), cached("/items/1", "/items/2", "/items"));
+    }
+
+    @Test
+    void testLostPositionDropsWholeCache() {
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, -1L, 2)).thenReturn(feed(3, true));
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, 3L, 2)).thenReturn(feed(1, true));
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, 1L, 2)).thenReturn(feed(900, true));
+
+        poller.poll();
+        store("/users/1");
+        poller.poll();
+        Assertions.assertEquals(List.of(), cached("/users/1"));
+
+        store("/users/1");
+        poller.poll();
+        Assertions.assertEquals(List.of(), cached("/users/1"));
+    }
+
+    @Test
+    void testUnavailableFeedKeepsPositionAndCache() {
+        Mockito.when(rest.getForObject(CHANGES, ChangeFeedDto.class, -1L, 2)).thenReturn(feed(3, true));
+        Mockito.when(rest.getForObject(eq(CHANGES), eq(ChangeFeedDto.class), eq(3L), eq(2)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(feed(4, false, new ChangeDto(4, ChangeType.USER, 1L)));
+
+        poller.poll();
+        store("/users/1");
+        poller.poll();
+        Assertions.assertEquals(List.of("/users/1"), cached("/users/1"));
+
+        poller.poll();
+        Assertions.assertEquals(List.of(), cached("/users/1"));
+    }
+
+    private void store(String... paths) {
+        for (String path : paths) {
+            cache.put(key(path), new CachedResponse(HttpStatus.OK, new HttpHeaders(), new byte[0]), cache.generation());
+        }
+    }
+
+    private List<String> cached(String... paths) {
+        return List.of(paths).stream().filter(path -> cache.get(key(path)) != null).toList();
+    }
+
+    private static ResponseCacheKey key(String path) {
+        return ResponseCache.keyOf(HttpMethod.GET, URI.create("http://server" + path), new HttpHeaders());
+    }
+
+    private static ChangeFeedDto feed(long lastSeq, boolean reset, ChangeDto... changes) {
+        return ChangeFeedDto.builder()
+                .lastSeq(lastSeq)
+                .reset(reset)
+                .changes(List.of(changes))
+                .build();
+    }
+}
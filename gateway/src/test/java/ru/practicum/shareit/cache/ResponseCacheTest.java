@@ -0,0 +1,244 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class ResponseCacheTest {
+    private final List<String> serverCalls = new CopyOnWriteArrayList<>();
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private volatile HttpStatus serverStatus = HttpStatus.OK;
+
+    @Test
+    void testGetIsServedFromCachePerUserAndQuery() {
+        ResponseCache cache = new ResponseCache(properties);
+        RestTemplate rest = restTemplate(cache);
+
+        Assertions.assertEquals("GET /items/1", get(rest, "/items/1", 1L));
+        Assertions.assertEquals("GET /items/1", get(rest, "/items/1", 1L));
+        get(rest, "/items/1", 2L);
+        get(rest, "/items/search?text=дрель", 1L);
+        get(rest, "/items/search?text=книга", 1L);
+        get(rest, "/items/search?text=книга", 1L);
+
+        Assertions.assertEquals(4, serverCalls.size());
+    }
+
+    @Test
+    void testOnlySuccessfulCacheableResponsesAreStored() {
+        ResponseCache cache = new ResponseCache(properties);
+        RestTemplate rest = restTemplate(cache);
+
+        get(rest, "/bookings?state=ALL", 1L);
+        get(rest, "/bookings?state=ALL", 1L);
+        serverStatus = HttpStatus.NOT_FOUND;
+        Assertions.assertThrows(HttpClientErrorException.NotFound.class, () -> get(rest, "/users/9", null));
+        serverStatus = HttpStatus.OK;
+        get(rest, "/users/9", null);
+
+        Assertions.assertEquals(4, serverCalls.size());
+    }
+
+    @Test
+    void testSuccessfulMutationInvalidatesRelatedResponses() {
+        ResponseCache cache = new ResponseCache(properties);
+        RestTemplate rest = restTemplate(cache);
+        List.of("/items/1", "/items/2", "/items?from=0&size=10", "/requests/all", "/users/1")
+                .forEach(path -> get(rest, path, 1L));
+
+        rest.exchange("/items/1", HttpMethod.PATCH, new HttpEntity<>("{}", userHeaders(1L)), String.class);
+        serverCalls.clear();
+        List.of("/items/1", "/items/2", "/items?from=0&size=10", "/requests/all", "/users/1")
+                .forEach(path -> get(rest, path, 1L));
+
+        Assertions.assertEquals(List.of("GET /items/1", "GET /items?from=0&size=10", "GET /requests/all"),
+                serverCalls);
+    }
+
+    @Test
+    void testChangesInvalidateOwnAndDependentResources() {
+        ResponseCache cache = new ResponseCache(properties);
+        RestTemplate rest = restTemplate(cache);
+        List.of("/items/1", "/users/1", "/users/2", "/users", "/requests/3")
+                .forEach(path -> get(rest, path, 1L));
+
+        cache.invalidate(ChangeType.BOOKING, 5L);
+        cache.invalidate(ChangeType.USER, 2L);
+        serverCalls.clear();
+        List.of("/items/1", "/users/1", "/users/2", "/users", "/requests/3")
+                .forEach(path -> get(rest, path, 1L));
+
+        Assertions.assertEquals(List.of("GET /items/1", "GET /users/2", "GET /users", "GET /requests/3"),
+                serverCalls);
+    }
+
+    @Test
+    void testBookingChangeInvalidatesOnlyItemAndOwnerListing() {
+        ResponseCache cache = new ResponseCache(properties);
+        RestTemplate rest = restTemplate(cache);
+        List.of(1L, 2L).forEach(userId -> List.of("/items/1", "/items/2", "/items?from=0&size=10", "/users/1")
+                .forEach(path -> get(rest, path, userId)));
+
+        cache.invalidate(ChangeType.BOOKING, 5L, 1L, 1L);
+        serverCalls.clear();
+        List.of(1L, 2L).forEach(userId -> List.of("/items/1", "/items/2", "/items?from=0&size=10", "/users/1")
+                .forEach(path -> get(rest, path, userId)));
+
+        Assertions.assertEquals(List.of("GET /items/1", "GET /items?from=0&size=10", "GET /items/1"), serverCalls);
+    }
+
+    @Test
+    void testCommentThroughGatewayInvalidatesOnlyItemAndListings() {
+        ResponseCache cache = new ResponseCache(properties);
+        RestTemplate rest = restTemplate(cache);
+        List.of("/items/1", "/items/2", "/items?from=0&size=10").forEach(path -> get(rest, path, 1L));
+
+        rest.exchange("/items/1/comment", HttpMethod.POST, new HttpEntity<>("{}", userHeaders(2L)), String.class);
+        serverCalls.clear();
+        List.of("/items/1", "/items/2", "/items?from=0&size=10").forEach(path -> get(rest, path, 1L));
+
+        Assertions.assertEquals(List.of("GET /items/1", "GET /items?from=0&size=10"), serverCalls);
+    }
+
+    @Test
+    void testResponseLoadedBeforeInvalidationIsNotStored() {
+        ResponseCache cache = new ResponseCache(properties);
+        ResponseCacheKey key = ResponseCache.keyOf(HttpMethod.GET, URI.create("http://server/items/1"),
+                new HttpHeaders());
+
+        long generation = cache.generation();
+        cache.invalidate(ChangeType.ITEM, 1L);
+        cache.put(key, new CachedResponse(HttpStatus.OK, new HttpHeaders(), new byte[1]), generation);
+
+        Assertions.assertNull(cache.get(key));
+    }
+
+    @Test
+    void testCacheIsBoundedBySizeAndReportsMetrics() {
+        properties.setMaxSize(DataSize.ofKilobytes(8));
+        ResponseCache cache = new ResponseCache(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CaffeineCacheMetrics.monitor(registry, cache.getCache(), ResponseCache.NAME);
+        RestTemplate rest = restTemplate(cache);
+
+        get(rest, "/items/0", 1L);
+        get(rest, "/items/0", 1L);
+        for (long id = 1; id < 100; id++) {
+            get(rest, "/items/" + id, 1L);
+        }
+        cache.getCache().cleanUp();
+
+        long totalWeight = cache.getCache().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        Assertions.assertTrue(totalWeight <= DataSize.ofKilobytes(8).toBytes());
+        Assertions.assertTrue(registry.get("cache.evictions").functionCounter().count() > 0);
+        Assertions.assertEquals(1, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(100, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testReactiveClientUsesSameCache() {
+        ResponseCache cache = new ResponseCache(properties);
+        WebClient web = WebClient.builder()
+                .baseUrl("http://server")
+                .exchangeFunction(request -> {
+                    serverCalls.add(request.method() + " " + request.url().getPath());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"id\":1}")
+                            .build());
+                })
+                .filter(new CachingExchangeFilter(cache))
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<byte[]> response = web.get().uri("/users/1").retrieve().toEntity(byte[].class).block();
+            Assertions.assertEquals("{\"id\":1}", new String(response.getBody(), StandardCharsets.UTF_8));
+            Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        }
+        web.delete().uri("/users/1").retrieve().toBodilessEntity().block();
+        web.get().uri("/users/1").retrieve().toEntity(byte[].class).block();
+
+        Assertions.assertEquals(List.of("GET /users/1", "DELETE /users/1", "GET /users/1"), serverCalls);
+    }
+
+    @Test
+    void testStreamingBodyIsPassedToDelegateUnbuffered() throws Exception {
+        List<StreamingHttpOutputMessage.Body> bodies = new CopyOnWriteArrayList<>();
+        CachingClientHttpRequestFactory factory = new CachingClientHttpRequestFactory((uri, method) ->
+                new StreamingMockRequest(method, uri, bodies), new ResponseCache(properties));
+        ClientHttpRequest request = factory.createRequest(URI.create("http://server/items/import"), HttpMethod.POST);
+        StreamingHttpOutputMessage.Body body = out -> out.write(1);
+
+        ((StreamingHttpOutputMessage) request).setBody(body);
+
+        Assertions.assertEquals(List.of(body), bodies);
+    }
+
+    private RestTemplate restTemplate(ResponseCache cache) {
+        RestTemplate rest = new RestTemplate(new CachingClientHttpRequestFactory((uri, method) ->
+                new MockClientHttpRequest(method, uri) {
+                    @Override
+                    protected ClientHttpResponse executeInternal() {
+                        String call = method + " " + uri.getPath()
+                                + (uri.getQuery() != null ? "?" + uri.getQuery() : "");
+                        serverCalls.add(call);
+                        MockClientHttpResponse response =
+                                new MockClientHttpResponse(call.getBytes(StandardCharsets.UTF_8), serverStatus);
+                        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+                        return response;
+                    }
+                }, cache));
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server"));
+        return rest;
+    }
+
+    private static String get(RestTemplate rest, String path, Long userId) {
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(userHeaders(userId)), String.class).getBody();
+    }
+
+    private static HttpHeaders userHeaders(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    private static class StreamingMockRequest extends MockClientHttpRequest implements StreamingHttpOutputMessage {
+        private final List<Body> bodies;
+
+        StreamingMockRequest(HttpMethod method, URI uri, List<Body> bodies) {
+            super(method, uri);
+            this.bodies = bodies;
+        }
+
+        @Override
+        public void setBody(Body body) {
+            bodies.add(body);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.client;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,12 +8,28 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.*;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -43,7 +60,7 @@ class ClientTest {
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
 
-        ResponseEntity<Object> response = baseClient.get("/");
+        ResponseEntity<Object> response = baseClient.get("/").block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -55,7 +72,7 @@ class ClientTest {
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
 
-        ResponseEntity<Object> response = baseClient.get("/", 1L);
+        ResponseEntity<Object> response = baseClient.get("/", 1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -68,7 +85,7 @@ class ClientTest {
                         defaultHeaders(1L)), Object.class, params))
                 .thenReturn(ResponseEntity.ok(userDto));
 
-        ResponseEntity<Object> response = baseClient.get("/", 1L, params);
+        ResponseEntity<Object> response = baseClient.get("/", 1L, params).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -86,7 +103,7 @@ class ClientTest {
                     }
                 });
 
-        ResponseEntity<Object> response = baseClient.get("/", 1L, params);
+        ResponseEntity<Object> response = baseClient.get("/", 1L, params).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
@@ -97,7 +114,7 @@ class ClientTest {
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.badRequest().build());
 
-        ResponseEntity<Object> response = baseClient.get("/");
+        ResponseEntity<Object> response = baseClient.get("/").block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
     }
 
@@ -108,7 +125,7 @@ class ClientTest {
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.badRequest().body(userDto));
 
-        ResponseEntity<Object> response = baseClient.get("/");
+        ResponseEntity<Object> response = baseClient.get("/").block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -119,7 +136,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.POST, new HttpEntity<>(userDto,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.post("/", userDto);
+        ResponseEntity<Object> response = baseClient.post("/", userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -130,7 +147,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.POST, new HttpEntity<>(userDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.post("/", 1L, userDto);
+        ResponseEntity<Object> response = baseClient.post("/", 1L, userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -141,7 +158,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.PUT, new HttpEntity<>(userDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.put("/", 1L, userDto);
+        ResponseEntity<Object> response = baseClient.put("/", 1L, userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -152,7 +169,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.PATCH, new HttpEntity<>(userDto,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.patch("/", userDto);
+        ResponseEntity<Object> response = baseClient.patch("/", userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -163,7 +180,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.PATCH, new HttpEntity<>(null,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.patch("/", 1L);
+        ResponseEntity<Object> response = baseClient.patch("/", 1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -174,7 +191,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.PATCH, new HttpEntity<>(userDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.patch("/", 1L, userDto);
+        ResponseEntity<Object> response = baseClient.patch("/", 1L, userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -185,7 +202,7 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.DELETE, new HttpEntity<>(null,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.delete("/");
+        ResponseEntity<Object> response = baseClient.delete("/").block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -196,11 +213,238 @@ class ClientTest {
                 .when(restTemplate.exchange("/", HttpMethod.DELETE, new HttpEntity<>(null,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = baseClient.delete("/", 1L);
+        ResponseEntity<Object> response = baseClient.delete("/", 1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
 
+    @Test
+    void testPassthroughRelaysServerBytesAndSelectedHeaders() {
+        BaseClient passthroughClient = new BaseClient(restTemplate, true);
+        byte[] body = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setContentType(MediaType.APPLICATION_JSON);
+        serverHeaders.setETag("\"7\"");
+        serverHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        serverHeaders.set(HttpHeaders.CONNECTION, "keep-alive");
+        Mockito
+                .when(restTemplate.exchange("/bookings?from={from}", HttpMethod.GET, new HttpEntity<>(null,
+                        defaultHeaders(1L)), byte[].class, Map.of("from", 0)))
+                .thenReturn(new ResponseEntity<>(body, serverHeaders, HttpStatus.OK));
+
+        ResponseEntity<Object> response = passthroughClient.get("/bookings?from={from}", 1L, Map.of("from", 0)).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        Assertions.assertSame(body, response.getBody());
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(response.getHeaders().getETag(), equalTo("\"7\""));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+    }
+
+    @Test
+    void testPassthroughRelaysErrorBody() {
+        BaseClient passthroughClient = new BaseClient(restTemplate, true);
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setContentType(MediaType.APPLICATION_JSON);
+        byte[] error = "{\"error\":\"Пользователь не найден\"}".getBytes(StandardCharsets.UTF_8);
+        Mockito
+                .when(restTemplate.exchange("/", HttpMethod.DELETE, new HttpEntity<>(null,
+                        defaultHeaders(1L)), byte[].class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", serverHeaders, error,
+                        StandardCharsets.UTF_8));
+
+        ResponseEntity<Object> response = passthroughClient.delete("/", 1L).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        Assertions.assertArrayEquals(error, (byte[]) response.getBody());
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testReactiveClientRelaysServerBytesAndStatus() {
+        List<ClientRequest> requests = new ArrayList<>();
+        WebClient web = WebClient.builder()
+                .baseUrl("http://localhost:9090/items")
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header(HttpHeaders.CONNECTION, "keep-alive")
+                            .body("{\"error\":\"Вещь не найдена\"}")
+                            .build());
+                })
+                .build();
+        BaseClient reactiveClient = new BaseClient(restTemplate, web, false);
+
+        ResponseEntity<Object> response = reactiveClient.get("/{id}?from={from}", 1L, Map.of("id", 5, "from", 0))
+                .block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8),
+                equalTo("{\"error\":\"Вещь не найдена\"}"));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertThat(requests.get(0).url(), equalTo(URI.create("http://localhost:9090/items/5?from=0")));
+        assertThat(requests.get(0).headers().getFirst("X-Sharer-User-Id"), equalTo("1"));
+        Mockito.verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testReactiveClientRelaysEmptyResponse() {
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .build();
+        BaseClient reactiveClient = new BaseClient(restTemplate, web, false);
+
+        ResponseEntity<Object> response = reactiveClient.patch("/", 1L, userDto).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        Assertions.assertFalse(response.hasBody());
+    }
+
+    @Test
+    void testNextCursorHeaderReachesCaller() {
+        BaseClient passthroughClient = new BaseClient(restTemplate, true);
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.set("X-Next-Cursor", "abc");
+        Mockito
+                .when(restTemplate.exchange("/bookings", HttpMethod.GET, new HttpEntity<>(null,
+                        defaultHeaders(1L)), byte[].class))
+                .thenReturn(new ResponseEntity<>("[]".getBytes(StandardCharsets.UTF_8), serverHeaders, HttpStatus.OK));
+        Mockito
+                .when(restTemplate.exchange("/bookings", HttpMethod.GET, new HttpEntity<>(null,
+                        defaultHeaders(2L)), byte[].class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", serverHeaders,
+                        new byte[0], StandardCharsets.UTF_8));
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header("X-Next-Cursor", "abc")
+                        .body("[]")
+                        .build()))
+                .build();
+        BaseClient reactiveClient = new BaseClient(restTemplate, web, false);
+
+        assertThat(passthroughClient.get("/bookings", 1L).block().getHeaders()
+                .getFirst("X-Next-Cursor"), equalTo("abc"));
+        assertThat(passthroughClient.get("/bookings", 2L).block().getHeaders()
+                .getFirst("X-Next-Cursor"), equalTo("abc"));
+        assertThat(reactiveClient.get("/bookings", 1L).block().getHeaders()
+                .getFirst("X-Next-Cursor"), equalTo("abc"));
+    }
+
+    @Test
+    void testConcurrentIdenticalGetsShareOneServerCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Mockito
+                .when(restTemplate.exchange("/1", HttpMethod.GET, new HttpEntity<>(null,
+                        defaultHeaders(1L)), Object.class))
+                .thenAnswer(invocation -> {
+                    calls.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(userDto);
+                });
+
+        List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                responses.add(executor.submit(() -> baseClient.get("/1", 1L).block()));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<Object>> response : responses) {
+                assertThat(response.get().getBody(), equalTo(userDto));
+            }
+        }
+
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void testGetsForDifferentUsersAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito
+                .when(restTemplate.exchange(Mockito.eq("/1"), Mockito.eq(HttpMethod.GET), Mockito.any(HttpEntity.class),
+                        Mockito.eq(Object.class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(userDto);
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<Object>> first = executor.submit(() -> baseClient.get("/1", 1L).block());
+            Future<ResponseEntity<Object>> second = executor.submit(() -> baseClient.get("/1", 2L).block());
+            Thread.sleep(200);
+            release.countDown();
+            first.get();
+            second.get();
+        }
+
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.eq("/1"), Mockito.eq(HttpMethod.GET),
+                Mockito.any(HttpEntity.class), Mockito.eq(Object.class));
+    }
+
+    @Test
+    void testCompletedGetIsNotReused() {
+        Mockito
+                .when(restTemplate.exchange("/", HttpMethod.GET, new HttpEntity<>(null,
+                        defaultHeaders(1L)), Object.class))
+                .thenReturn(ResponseEntity.ok(userDto));
+
+        baseClient.get("/", 1L).block();
+        baseClient.get("/", 1L).block();
+
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange("/", HttpMethod.GET, new HttpEntity<>(null,
+                defaultHeaders(1L)), Object.class);
+    }
+
+    @Test
+    void testConcurrentPostsAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito
+                .when(restTemplate.exchange("/", HttpMethod.POST, new HttpEntity<>(userDto,
+                        defaultHeaders(1L)), Object.class))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(userDto);
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<Object>> first = executor.submit(() -> baseClient.post("/", 1L, userDto).block());
+            Future<ResponseEntity<Object>> second = executor.submit(() -> baseClient.post("/", 1L, userDto).block());
+            Thread.sleep(200);
+            release.countDown();
+            first.get();
+            second.get();
+        }
+
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange("/", HttpMethod.POST, new HttpEntity<>(userDto,
+                defaultHeaders(1L)), Object.class);
+    }
+
+    @Test
+    void testReactiveConcurrentIdenticalGetsShareOneServerCall() {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.delay(Duration.ofMillis(200))
+                        .doOnSubscribe(subscription -> calls.incrementAndGet())
+                        .map(tick -> ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"id\":1}")
+                                .build()))
+                .build();
+        BaseClient reactiveClient = new BaseClient(restTemplate, web, false);
+
+        List<ResponseEntity<Object>> responses = Flux.range(0, 100)
+                .flatMap(i -> reactiveClient.get("/users/1", 1L))
+                .collectList()
+                .block();
+
+        assertThat(responses.size(), equalTo(100));
+        assertThat(calls.get(), equalTo(1));
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
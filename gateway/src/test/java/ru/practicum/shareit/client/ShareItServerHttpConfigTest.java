@@ -0,0 +1,280 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ShareItServerHttpConfigTest {
+    private static final String PENDING = "httpcomponents.httpclient.pool.total.pending";
+    private static final String CONNECTIONS = "httpcomponents.httpclient.pool.total.connections";
+
+    private final ShareItServerHttpConfig config = new ShareItServerHttpConfig();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long delayMillis = 20;
+    private volatile byte[] responseBody = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(32));
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(delayMillis);
+                byte[] body = responseBody;
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void testConcurrentRequestsReuseBoundedPoolAndPublishMetrics() throws Exception {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        properties.setMaxTotal(4);
+        properties.setMaxPerRoute(4);
+        properties.setConnectionRequestTimeout(Duration.ofSeconds(5));
+        BaseClient client = client(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.shareItServerConnectionPoolMetrics(connectionManager).bindTo(registry);
+        AtomicInteger maxPending = new AtomicInteger();
+
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long userId = i;
+            responses.add(callers.submit(() -> {
+                maxPending.accumulateAndGet((int) registry.get(PENDING).gauge().value(), Math::max);
+                return client.get("/ping", userId).block();
+            }));
+        }
+        for (Future<ResponseEntity<Object>> response : responses) {
+            Assertions.assertEquals(HttpStatus.OK, response.get().getStatusCode());
+            Assertions.assertEquals(Map.of("ok", true), response.get().getBody());
+        }
+        callers.shutdown();
+
+        Assertions.assertTrue(maxInFlight.get() <= 4, "in flight: " + maxInFlight.get());
+        Assertions.assertTrue(clientPorts.size() <= 4, "connections opened: " + clientPorts.size());
+        Assertions.assertTrue(maxPending.get() > 0, "callers never waited for a lease");
+        Assertions.assertEquals(0, registry.get(CONNECTIONS).tag("state", "leased").gauge().value());
+        Assertions.assertEquals(clientPorts.size(),
+                registry.get(CONNECTIONS).tag("state", "available").gauge().value());
+        Assertions.assertEquals(4, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+    }
+
+    @Test
+    void testSlowServerAndExhaustedPoolFailFast() throws Exception {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        properties.setMaxTotal(1);
+        properties.setMaxPerRoute(1);
+        properties.setResponseTimeout(Duration.ofMillis(300));
+        properties.setConnectionRequestTimeout(Duration.ofMillis(100));
+        BaseClient client = client(properties);
+        delayMillis = 1000;
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<?> slow = caller.submit(() -> client.get("/slow").block());
+        Thread.sleep(100);
+        long started = System.nanoTime();
+        Assertions.assertThrows(ResourceAccessException.class, () -> client.get("/waiting").block());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 250);
+
+        Exception timeout = Assertions.assertThrows(Exception.class, slow::get);
+        Assertions.assertInstanceOf(ResourceAccessException.class, timeout.getCause());
+        caller.shutdown();
+    }
+
+    @Test
+    void testVirtualThreadCallersDoNotPinCarriers() throws Exception {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        properties.setMaxPerRoute(8);
+        properties.setConnectionRequestTimeout(Duration.ofSeconds(10));
+        BaseClient client = client(properties);
+        List<String> pinned = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(5)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.add(String.valueOf(event.getStackTrace())));
+            recording.startAsync();
+            List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                responses.add(callers.submit(() -> client.get("/ping").block()));
+            }
+            for (Future<ResponseEntity<Object>> response : responses) {
+                Assertions.assertEquals(HttpStatus.OK, response.get().getStatusCode());
+            }
+            recording.stop();
+        }
+
+        Assertions.assertEquals(List.of(), pinned);
+    }
+
+    @Test
+    void testReactiveClientKeepsManyRequestsInFlightOnFewThreads() {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        properties.setMaxPerRoute(16);
+        properties.setConnectionRequestTimeout(Duration.ofSeconds(10));
+        ConnectionProvider connectionProvider = config.shareItServerConnectionProvider(properties);
+        WebClient.Builder builder = WebClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort());
+        config.shareItServerWebClientCustomizer(connectionProvider, properties, Optional.empty()).customize(builder);
+        BaseClient client = new BaseClient(new RestTemplate(), builder.build(), false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        ((ThreadPoolExecutor) server.getExecutor()).prestartAllCoreThreads();
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        try {
+            List<ResponseEntity<Object>> responses = Flux.range(0, 1000)
+                    .flatMap(i -> client.get("/ping"), 1000)
+                    .collectList()
+                    .block(Duration.ofSeconds(30));
+
+            Assertions.assertEquals(1000, responses.size());
+            responses.forEach(response -> Assertions.assertEquals(HttpStatus.OK, response.getStatusCode()));
+            Assertions.assertTrue(threads.getPeakThreadCount() - threadsBefore < 20,
+                    "threads started: " + (threads.getPeakThreadCount() - threadsBefore));
+            Assertions.assertTrue(clientPorts.size() <= 16, "connections opened: " + clientPorts.size());
+            Assertions.assertEquals(16, registry.get("reactor.netty.connection.provider.max.connections")
+                    .tag("name", ShareItServerHttpConfig.POOL_NAME).gauge().value());
+        } finally {
+            Metrics.removeRegistry(registry);
+            connectionProvider.dispose();
+        }
+    }
+
+    @Test
+    void testPassthroughAllocatesFarLessThanObjectTreeForLargeLists() throws Exception {
+        StringBuilder bookings = new StringBuilder("[");
+        for (int i = 1; i <= 1000; i++) {
+            bookings.append(i == 1 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"start\":\"2024-05-01T12:00:00\",\"end\":\"2024-05-02T12:00:00\",")
+                    .append("\"status\":\"APPROVED\",\"booker\":{\"id\":2,\"name\":\"Петр\",")
+                    .append("\"email\":\"petr@yandex.ru\"},\"item\":{\"id\":").append(i)
+                    .append(",\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\",\"available\":true}}");
+        }
+        responseBody = bookings.append("]").toString().getBytes(StandardCharsets.UTF_8);
+        delayMillis = 0;
+        RestTemplate rest = restTemplate(new ShareItServerHttpProperties());
+
+        long objectBytes = allocatedPerRequest(new BaseClient(rest, false));
+        long passthroughBytes = allocatedPerRequest(new BaseClient(rest, true));
+
+        Assertions.assertTrue(passthroughBytes * 2 < objectBytes,
+                "object: " + objectBytes + " B/request, passthrough: " + passthroughBytes + " B/request");
+    }
+
+    /**
+     * Байты, выделенные текущим потоком на запрос к серверу и запись ответа так, как это делает Spring MVC.
+     */
+    private long allocatedPerRequest(BaseClient client) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 30; i++) {
+            relay(client);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 50; i++) {
+            relay(client);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / 50;
+    }
+
+    private static void relay(BaseClient client) throws IOException {
+        HttpOutputMessage discard = new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+        Object body = client.get("/bookings").block().getBody();
+        if (body instanceof byte[] bytes) {
+            new ByteArrayHttpMessageConverter().write(bytes, MediaType.APPLICATION_JSON, discard);
+        } else {
+            new MappingJackson2HttpMessageConverter().write(body, MediaType.APPLICATION_JSON, discard);
+        }
+    }
+
+    private BaseClient client(ShareItServerHttpProperties properties) {
+        return new BaseClient(restTemplate(properties));
+    }
+
+    private RestTemplate restTemplate(ShareItServerHttpProperties properties) {
+        connectionManager = config.shareItServerConnectionManager(properties);
+        httpClient = config.shareItServerHttpClient(connectionManager, properties);
+        RestTemplate rest = new RestTemplate(config.shareItServerRequestFactory(httpClient, Optional.empty()));
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:" + server.getAddress().getPort()));
+        return rest;
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+class ShareItServerResilienceTest {
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ShareItServerResilienceProperties properties = new ShareItServerResilienceProperties();
+    private volatile IntUnaryOperator delayMillis = request -> 5;
+    private volatile int status = 200;
+    private HttpServer server;
+    private ShareItServerResilience resilience;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            int request = requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMillis.applyAsInt(request));
+                byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (resilience != null) {
+            resilience.destroy();
+        }
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void testBulkheadRejectsCallsOverLimitPerEndpoint() throws Exception {
+        properties.setMaxConcurrentCalls(2);
+        delayMillis = request -> 500;
+        BaseClient client = client(null);
+
+        List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long userId = 1; userId <= 6; userId++) {
+                long user = userId;
+                responses.add(callers.submit(() -> client.get("/" + user, user).block()));
+            }
+            Thread.sleep(100);
+            Assertions.assertEquals(HttpStatus.OK, client.get("", 1L).block().getStatusCode());
+
+            int ok = 0;
+            int rejected = 0;
+            for (Future<ResponseEntity<Object>> response : responses) {
+                if (response.get().getStatusCode() == HttpStatus.OK) {
+                    ok++;
+                } else {
+                    Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.get().getStatusCode());
+                    Assertions.assertEquals("1", response.get().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                    rejected++;
+                }
+            }
+            Assertions.assertEquals(2, ok);
+            Assertions.assertEquals(4, rejected);
+        }
+        Assertions.assertEquals(3, maxInFlight.get());
+        Assertions.assertEquals(2, resilience.getBulkhead("GET /items/{id}").getMetrics()
+                .getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void testCircuitBreakerOpensOnServerErrorsAndStopsCallingServer() {
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setWaitInOpenState(Duration.ofSeconds(30));
+        status = 500;
+        BaseClient client = client(null);
+
+        for (long userId = 1; userId <= 4; userId++) {
+            Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                    client.get("/5", userId).block().getStatusCode());
+        }
+        ResponseEntity<Object> rejected = client.get("/7", 1L).block();
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker("GET /items/{id}").getState());
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        Assertions.assertEquals("30", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(4, requests.get());
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, client.post("", 1L, "{}").block().getStatusCode());
+    }
+
+    @Test
+    void testCircuitBreakerOpensOnSlowCalls() {
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setSlowCallDuration(Duration.ofMillis(50));
+        properties.setSlowCallRateThreshold(50);
+        delayMillis = request -> 100;
+        BaseClient client = client(null);
+
+        for (long userId = 1; userId <= 4; userId++) {
+            Assertions.assertEquals(HttpStatus.OK, client.get("", userId).block().getStatusCode());
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker("GET /items").getState());
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, client.get("", 5L).block().getStatusCode());
+    }
+
+    @Test
+    void testSlowGetIsHedgedAfterPercentileDelay() {
+        properties.setHedgeEnabled(true);
+        properties.setHedgeMinSamples(20);
+        delayMillis = request -> request == 21 ? 3000 : 5;
+        BaseClient client = client(null);
+        warmUp(client);
+
+        long start = System.nanoTime();
+        ResponseEntity<Object> response = client.get("/1", 21L).block();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(elapsedMillis < 1000, "hedged call took " + elapsedMillis + " ms");
+        Assertions.assertEquals(1, resilience.getHedged());
+        Assertions.assertEquals(22, requests.get());
+    }
+
+    @Test
+    void testReactiveSlowGetIsHedgedAndPublished() {
+        properties.setHedgeEnabled(true);
+        delayMillis = request -> request == 21 ? 3000 : 5;
+        BaseClient client = client(WebClient.builder().baseUrl(baseUrl()).build());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        resilience.bindTo(registry);
+        warmUp(client);
+
+        long start = System.nanoTime();
+        ResponseEntity<Object> response = client.get("/1", 21L).block();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(elapsedMillis < 1000, "hedged call took " + elapsedMillis + " ms");
+        Assertions.assertEquals(1, registry.get(ShareItServerResilience.HEDGED_METRIC).functionCounter().count());
+        Assertions.assertEquals(1, registry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "GET /items/{id}").tag("state", "closed").gauge().value());
+    }
+
+    @Test
+    void testWritesAndUnsampledEndpointsAreNotHedged() {
+        properties.setHedgeEnabled(true);
+        BaseClient client = client(null);
+        warmUp(client);
+
+        delayMillis = request -> 300;
+        client.patch("/1", 1L, "{}").block();
+        client.get("", 1L).block();
+
+        Assertions.assertEquals(0, resilience.getHedged());
+        Assertions.assertEquals(22, requests.get());
+    }
+
+    private void warmUp(BaseClient client) {
+        for (long userId = 1; userId <= 20; userId++) {
+            Assertions.assertEquals(HttpStatus.OK, client.get("/1", userId).block().getStatusCode());
+        }
+    }
+
+    private BaseClient client(WebClient web) {
+        resilience = new ShareItServerResilience(properties);
+        RestTemplate rest = new RestTemplate(new JdkClientHttpRequestFactory());
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl()));
+        return new BaseClient(rest, web, true, resilience);
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/items";
+    }
+}
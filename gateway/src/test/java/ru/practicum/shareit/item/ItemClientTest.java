@@ -8,20 +8,33 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +47,9 @@ class ItemClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ClientHttpRequestFactory requestFactory;
+
     private ItemClient itemClient;
 
     private ItemDto itemDto = ItemDto.builder()
@@ -60,7 +76,8 @@ class ItemClientTest {
         when(builder.uriTemplateHandler(any())).thenReturn(builder);
         when(builder.requestFactory(any(Supplier.class))).thenReturn(builder);
         when(builder.build()).thenReturn(restTemplate);
-        itemClient = new ItemClient("", builder);
+        itemClient = new ItemClient("", builder, requestFactory, WebClient.builder(), false, false,
+                Optional.empty());
     }
 
     @Test
@@ -69,18 +86,65 @@ class ItemClientTest {
                 .when(restTemplate.exchange("", HttpMethod.POST, new HttpEntity<>(itemDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(itemDto));
-        ResponseEntity<Object> response = itemClient.createNewItem(itemDto, 1L);
+        ResponseEntity<Object> response = itemClient.createNewItem(itemDto, 1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(itemDto));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportItemsStreamsBodyBothWays() throws Exception {
+        byte[] rows = "{\"name\":\"item1\"}\n".getBytes(StandardCharsets.UTF_8);
+        byte[] report = "{\"row\":1,\"id\":1}\n".getBytes(StandardCharsets.UTF_8);
+        MockClientHttpRequest serverRequest = new MockClientHttpRequest();
+        MockClientHttpResponse serverResponse = new MockClientHttpResponse(report, HttpStatus.OK);
+        serverResponse.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+        Mockito.when(restTemplate.execute(eq("/import"), eq(HttpMethod.POST), any(RequestCallback.class),
+                any(ResponseExtractor.class))).thenAnswer(invocation -> {
+                    invocation.getArgument(2, RequestCallback.class).doWithRequest(serverRequest);
+                    return invocation.getArgument(3, ResponseExtractor.class).extractData(serverResponse);
+                });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        itemClient.importItems(new ByteArrayInputStream(rows), MediaType.APPLICATION_NDJSON, 1L, response);
+
+        assertThat(serverRequest.getBodyAsBytes(), equalTo(rows));
+        assertThat(serverRequest.getHeaders().getFirst("X-Sharer-User-Id"), equalTo("1"));
+        assertThat(serverRequest.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_NDJSON));
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(response.getContentType(), equalTo(MediaType.APPLICATION_NDJSON_VALUE));
+        assertThat(response.getContentAsByteArray(), equalTo(report));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportItemsWritesBodyOnlyWhenRequestIsSent() throws Exception {
+        byte[] rows = "{\"name\":\"item1\"}\n{\"name\":\"item2\"}\n".getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream body = new ByteArrayInputStream(rows);
+        StreamingClientHttpRequest serverRequest = new StreamingClientHttpRequest();
+        int[] unreadBeforeSend = new int[1];
+        Mockito.when(restTemplate.execute(eq("/import"), eq(HttpMethod.POST), any(RequestCallback.class),
+                any(ResponseExtractor.class))).thenAnswer(invocation -> {
+                    invocation.getArgument(2, RequestCallback.class).doWithRequest(serverRequest);
+                    unreadBeforeSend[0] = body.available();
+                    serverRequest.body.writeTo(serverRequest.getBody());
+                    return invocation.getArgument(3, ResponseExtractor.class)
+                            .extractData(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+                });
+
+        itemClient.importItems(body, MediaType.APPLICATION_NDJSON, 1L, new MockHttpServletResponse());
+
+        assertThat(unreadBeforeSend[0], equalTo(rows.length));
+        assertThat(serverRequest.getBodyAsBytes(), equalTo(rows));
+    }
+
     @Test
     void testUpdateItemOfUserById() {
         Mockito
                 .when(restTemplate.exchange("/2", HttpMethod.PATCH, new HttpEntity<>(itemDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(itemDto));
-        ResponseEntity<Object> response = itemClient.updateItemOfUserById(2L, itemDto, 1L);
+        ResponseEntity<Object> response = itemClient.updateItemOfUserById(2L, itemDto, 1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(itemDto));
     }
@@ -91,11 +155,27 @@ class ItemClientTest {
                 .when(restTemplate.exchange("/2", HttpMethod.GET, new HttpEntity<>(null,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(itemDto));
-        ResponseEntity<Object> response = itemClient.getItemById(2L, 1L);
+        ResponseEntity<Object> response = itemClient.getItemById(2L, 1L, null).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(itemDto));
     }
 
+    @Test
+    void testGetItemAvailabilityPassesOnlyGivenBounds() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Mockito
+                .when(restTemplate.exchange("/2/availability?granularity={granularity}&from={from}",
+                        HttpMethod.GET, new HttpEntity<>(null, defaultHeaders(1L)), Object.class,
+                        Map.of("granularity", "HOUR", "from", from)))
+                .thenReturn(ResponseEntity.ok(Map.of("runs", List.of(24))));
+
+        ResponseEntity<Object> response = itemClient.getItemAvailability(2L, 1L, from, null, "HOUR", null)
+                .block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), equalTo(Map.of("runs", List.of(24))));
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -105,4 +185,14 @@ class ItemClientTest {
         }
         return headers;
     }
-}
\ No newline at end of file
+
+    private static class StreamingClientHttpRequest extends MockClientHttpRequest
+            implements StreamingHttpOutputMessage {
+        private Body body;
+
+        @Override
+        public void setBody(Body body) {
+            this.body = body;
+        }
+    }
+}
@@ -1,27 +1,42 @@
 package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -58,7 +73,7 @@ class ItemControllerTest {
     @Test
     void testCreateNewItem() throws Exception {
         when(itemClient.createNewItem(itemDto, 2L))
-                .thenReturn(ResponseEntity.ok(itemDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(itemDto)));
 
         mvc.perform(post("/items")
                         .content(mapper.writeValueAsString(itemDto))
@@ -81,7 +96,7 @@ class ItemControllerTest {
                 .build();
 
         when(itemClient.updateItemOfUserById(2L, itemDto, 1L))
-                .thenReturn(ResponseEntity.ok(updatedItemDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(updatedItemDto)));
 
         mvc.perform(patch("/items/1")
                         .content(mapper.writeValueAsString(itemDto))
@@ -95,7 +110,7 @@ class ItemControllerTest {
     @Test
     void testGetItemsOfUserById() throws Exception {
         when(itemClient.getItemsOfUserById(1, 5, 2L))
-                .thenReturn(ResponseEntity.ok(List.of(itemDto)));
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(itemDto))));
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 2L)
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -105,10 +120,24 @@ class ItemControllerTest {
 
     }
 
+    @Test
+    void testSearchItemPassesFuzzyFlag() throws Exception {
+        when(itemClient.findItemsOfUser(0, 10, "drll", true, 2L))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(itemDto))));
+        performAsync(get("/items/search")
+                        .param("text", "drll")
+                        .param("fuzzy", "true")
+                        .header("X-Sharer-User-Id", 2L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemClient).findItemsOfUser(0, 10, "drll", true, 2L);
+    }
+
     @Test
     void testGetItemById() throws Exception {
-        when(itemClient.getItemById(2L, 1L))
-                .thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.getItemById(2L, 1L, null))
+                .thenReturn(Mono.just(ResponseEntity.ok(itemDto)));
         mvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 2L)
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -116,4 +145,43 @@ class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemClient.getItemAvailability(1L, 2L, from, from.plusDays(3), "day", "\"a1\""))
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("runs", List.of(1, 1, 1)))));
+
+        performAsync(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-04T00:00:00")
+                        .param("granularity", "day")
+                        .header("X-Sharer-User-Id", 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"a1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runs[2]").value(1));
+
+        verify(itemClient).getItemAvailability(1L, 2L, from, from.plusDays(3), "day", "\"a1\"");
+    }
+
+    @Test
+    void testImportItemsIsForwardedToClient() throws Exception {
+        mvc.perform(post("/items/import")
+                        .content("{\"name\":\"item1\"}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+
+        verify(itemClient).importItems(any(InputStream.class), eq(MediaType.APPLICATION_NDJSON), eq(1L),
+                any(HttpServletResponse.class));
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
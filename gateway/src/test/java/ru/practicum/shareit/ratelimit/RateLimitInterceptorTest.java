@@ -0,0 +1,101 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.BatchController;
+import ru.practicum.shareit.batch.BatchDispatcher;
+import ru.practicum.shareit.batch.dto.BatchOperationDto;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {UserController.class, BatchController.class}, properties = {
+        "shareit-server.rate-limit.read.capacity=2",
+        "shareit-server.rate-limit.read.refill-per-second=0.1"})
+@Import({RateLimitConfig.class, BatchDispatcher.class})
+class RateLimitInterceptorTest {
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    private UserDto userDto = UserDto.builder()
+            .id(1L)
+            .name("Aliona")
+            .email("1@mail.com")
+            .build();
+
+    @Test
+    void throttledRequestGetsTooManyRequestsWithRetryAfter() throws Exception {
+        when(userClient.getUserById(any(), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
+
+        performAsync(get("/users/1").header("X-Sharer-User-Id", 1L)).andExpect(status().isOk());
+        performAsync(get("/users/1").header("X-Sharer-User-Id", 1L)).andExpect(status().isOk());
+        mvc.perform(get("/users/1").header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.error", is("Слишком много запросов, повторите через 10 с.")));
+
+        performAsync(get("/users/1").header("X-Sharer-User-Id", 2L)).andExpect(status().isOk());
+    }
+
+    @Test
+    void batchOperationsAreThrottledOneByOne() throws Exception {
+        when(userClient.getUserById(any(), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
+
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchOperationDto("1", "GET", "/users/1", null, null),
+                new BatchOperationDto("2", "GET", "/users/2", null, null),
+                new BatchOperationDto("3", "GET", "/users/3", null, null)));
+        performAsync(post("/batch")
+                .header("X-Sharer-User-Id", 3L)
+                .content(mapper.writeValueAsString(batch))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[1].status", is(200)))
+                .andExpect(jsonPath("$[2].status", is(429)))
+                .andExpect(jsonPath("$[2].headers.Retry-After", is("10")));
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
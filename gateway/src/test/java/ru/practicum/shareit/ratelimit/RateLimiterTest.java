@@ -0,0 +1,102 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RateLimiterTest {
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void testBurstThenThrottleUntilRefill() {
+        properties.setRead(new RateLimitProperties.Limit(3, 2));
+        RateLimiter limiter = new RateLimiter(properties, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("1", EndpointClass.READ));
+        }
+        long wait = limiter.tryAcquire("1", EndpointClass.READ);
+
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+        Assertions.assertEquals(1, RateLimiter.retryAfterSeconds(wait));
+        now.addAndGet(wait);
+        Assertions.assertEquals(0, limiter.tryAcquire("1", EndpointClass.READ));
+        Assertions.assertTrue(limiter.tryAcquire("1", EndpointClass.READ) > 0);
+        Assertions.assertEquals(2, limiter.getThrottled(EndpointClass.READ));
+    }
+
+    @Test
+    void testClientsAndEndpointClassesHaveSeparateBuckets() {
+        properties.setRead(new RateLimitProperties.Limit(1, 1));
+        properties.setSearch(new RateLimitProperties.Limit(1, 1));
+        RateLimiter limiter = new RateLimiter(properties, now::get);
+
+        Assertions.assertEquals(0, limiter.tryAcquire("1", EndpointClass.READ));
+        Assertions.assertTrue(limiter.tryAcquire("1", EndpointClass.READ) > 0);
+        Assertions.assertEquals(0, limiter.tryAcquire("1", EndpointClass.SEARCH));
+        Assertions.assertEquals(0, limiter.tryAcquire("2", EndpointClass.READ));
+        Assertions.assertEquals(0, limiter.getThrottled(EndpointClass.SEARCH));
+    }
+
+    @Test
+    void testConcurrentCallersNeverExceedCapacity() throws Exception {
+        properties.setWrite(new RateLimitProperties.Limit(100, 1));
+        RateLimiter limiter = new RateLimiter(properties, now::get);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int t = 0; t < 16; t++) {
+                results.add(executor.submit(() -> {
+                    int acquired = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("1", EndpointClass.WRITE) == 0) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+        }
+        int acquired = 0;
+        for (Future<Integer> result : results) {
+            acquired += result.get();
+        }
+
+        Assertions.assertEquals(100, acquired);
+        Assertions.assertEquals(16_000 - 100, limiter.getThrottled(EndpointClass.WRITE));
+    }
+
+    @Test
+    void testThrottledRequestsArePublishedAsCounters() {
+        properties.setSearch(new RateLimitProperties.Limit(1, 1));
+        RateLimiter limiter = new RateLimiter(properties, now::get);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        limiter.tryAcquire("1", EndpointClass.SEARCH);
+        limiter.tryAcquire("1", EndpointClass.SEARCH);
+
+        Assertions.assertEquals(1, registry.get(RateLimiter.THROTTLED_METRIC).tag("endpoint", "search")
+                .functionCounter().count());
+        Assertions.assertEquals(0, registry.get(RateLimiter.THROTTLED_METRIC).tag("endpoint", "read")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testEndpointClassOfRequest() {
+        Assertions.assertEquals(EndpointClass.SEARCH, EndpointClass.of("GET", "/items/search"));
+        Assertions.assertEquals(EndpointClass.SEARCH, EndpointClass.of("GET", "/bookings/owner/archive"));
+        Assertions.assertEquals(EndpointClass.READ, EndpointClass.of("GET", "/items/1"));
+        Assertions.assertEquals(EndpointClass.WRITE, EndpointClass.of("PATCH", "/bookings/1"));
+        Assertions.assertEquals(EndpointClass.WRITE, EndpointClass.of("post", "/items"));
+    }
+}
@@ -8,11 +8,14 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,6 +32,9 @@ class ItemRequestClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ClientHttpRequestFactory requestFactory;
+
     private ItemRequestClient itemRequestClient;
 
     private ItemRequestDto itemRequestDto = ItemRequestDto.builder()
@@ -42,7 +48,8 @@ class ItemRequestClientTest {
         when(builder.uriTemplateHandler(any())).thenReturn(builder);
         when(builder.requestFactory(any(Supplier.class))).thenReturn(builder);
         when(builder.build()).thenReturn(restTemplate);
-        itemRequestClient = new ItemRequestClient("", builder);
+        itemRequestClient = new ItemRequestClient("", builder, requestFactory, WebClient.builder(), false, false,
+                Optional.empty());
     }
 
     @Test
@@ -51,7 +58,7 @@ class ItemRequestClientTest {
                 .when(restTemplate.exchange("", HttpMethod.POST, new HttpEntity<>(itemRequestDto,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(itemRequestDto));
-        ResponseEntity<Object> response = itemRequestClient.createRequest(itemRequestDto, 1L);
+        ResponseEntity<Object> response = itemRequestClient.createRequest(itemRequestDto, 1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(itemRequestDto));
     }
@@ -63,7 +70,7 @@ class ItemRequestClientTest {
                 .when(restTemplate.exchange("", HttpMethod.GET, new HttpEntity<>(null,
                         defaultHeaders(1L)), Object.class))
                 .thenReturn(ResponseEntity.ok(requests));
-        ResponseEntity<Object> response = itemRequestClient.getAllForRequestor(1L);
+        ResponseEntity<Object> response = itemRequestClient.getAllForRequestor(1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(requests));
     }
@@ -8,6 +8,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.nio.charset.StandardCharsets;
@@ -19,6 +23,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -43,9 +49,9 @@ class ItemRequestControllerTest {
     @Test
     void testCreateRequest() throws Exception {
         when(itemRequestClient.createRequest(itemRequestDto, 2L))
-                .thenReturn(ResponseEntity.ok(itemRequestDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(itemRequestDto)));
 
-        mvc.perform(post("/requests")
+        performAsync(post("/requests")
                         .content(mapper.writeValueAsString(itemRequestDto))
                         .header("X-Sharer-User-Id", 2L)
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -59,9 +65,9 @@ class ItemRequestControllerTest {
     @Test
     void testGetAllForRequestor() throws Exception {
         when(itemRequestClient.getAllForRequestor(2L))
-                .thenReturn(ResponseEntity.ok(List.of(itemRequestDto)));
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(itemRequestDto))));
 
-        mvc.perform(get("/requests")
+        performAsync(get("/requests")
                         .header("X-Sharer-User-Id", 2L)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -74,7 +80,7 @@ class ItemRequestControllerTest {
     @Test
     void testGetAll() throws Exception {
         when(itemRequestClient.getAll(1, 5, 2L))
-                .thenReturn(ResponseEntity.ok(List.of(itemRequestDto)));
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(itemRequestDto))));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 2L)
@@ -83,4 +89,11 @@ class ItemRequestControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
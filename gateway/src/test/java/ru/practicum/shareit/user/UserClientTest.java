@@ -8,10 +8,13 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,6 +32,9 @@ class UserClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ClientHttpRequestFactory requestFactory;
+
     private UserClient userClient;
 
     private UserDto userDto = UserDto.builder()
@@ -42,7 +48,8 @@ class UserClientTest {
         when(builder.uriTemplateHandler(any())).thenReturn(builder);
         when(builder.requestFactory(any(Supplier.class))).thenReturn(builder);
         when(builder.build()).thenReturn(restTemplate);
-        userClient = new UserClient("", builder);
+        userClient = new UserClient("", builder, requestFactory, WebClient.builder(), false, false,
+                Optional.empty());
     }
 
     @Test
@@ -51,7 +58,7 @@ class UserClientTest {
                 .when(restTemplate.exchange("", HttpMethod.POST, new HttpEntity<>(userDto,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = userClient.createNewUser(userDto);
+        ResponseEntity<Object> response = userClient.createNewUser(userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -62,7 +69,7 @@ class UserClientTest {
                 .when(restTemplate.exchange("/1", HttpMethod.PATCH, new HttpEntity<>(userDto,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = userClient.updateUserById(1L, userDto);
+        ResponseEntity<Object> response = userClient.updateUserById(1L, userDto).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -73,7 +80,7 @@ class UserClientTest {
                 .when(restTemplate.exchange("/1", HttpMethod.GET, new HttpEntity<>(null,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok(userDto));
-        ResponseEntity<Object> response = userClient.getUserById(1L);
+        ResponseEntity<Object> response = userClient.getUserById(1L, null).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo(userDto));
     }
@@ -84,10 +91,25 @@ class UserClientTest {
                 .when(restTemplate.exchange("/1", HttpMethod.DELETE, new HttpEntity<>(null,
                         defaultHeaders(null)), Object.class))
                 .thenReturn(ResponseEntity.ok().build());
-        ResponseEntity<Object> response = userClient.deleteUserById(1L);
+        ResponseEntity<Object> response = userClient.deleteUserById(1L).block();
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
     }
 
+    @Test
+    void testGetUserByIdForwardsIfNoneMatchAndKeepsValidatorsOfNotModified() {
+        HttpHeaders headers = defaultHeaders(null);
+        headers.setIfNoneMatch("\"u1-2\"");
+        Mockito
+                .when(restTemplate.exchange("/1", HttpMethod.GET, new HttpEntity<>(null, headers), Object.class))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"u1-2\"").build());
+
+        ResponseEntity<Object> response = userClient.getUserById(1L, "\"u1-2\"").block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(response.getHeaders().getETag(), equalTo("\"u1-2\""));
+        assertThat(response.hasBody(), equalTo(false));
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -5,19 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -42,9 +53,9 @@ class UserControllerTest {
     @Test
     void createNewUser() throws Exception {
         when(userClient.createNewUser(any()))
-                .thenReturn(ResponseEntity.ok(userDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        mvc.perform(post("/users")
+        performAsync(post("/users")
                         .content(mapper.writeValueAsString(userDto))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -58,9 +69,9 @@ class UserControllerTest {
     @Test
     void updateUserById() throws Exception {
         when(userClient.updateUserById(any(), any()))
-                .thenReturn(ResponseEntity.ok(userDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        mvc.perform(patch("/users/1")
+        performAsync(patch("/users/1")
                         .content(mapper.writeValueAsString(userDto))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -73,10 +84,10 @@ class UserControllerTest {
 
     @Test
     void getUserById() throws Exception {
-        when(userClient.getUserById(anyLong()))
-                .thenReturn(ResponseEntity.ok(userDto));
+        when(userClient.getUserById(anyLong(), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        mvc.perform(get("/users/1")
+        performAsync(get("/users/1")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
@@ -86,6 +97,19 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(userDto.getEmail())));
     }
 
+    @Test
+    void getUserByIdForwardsIfNoneMatchAndAnswersNotModified() throws Exception {
+        when(userClient.getUserById(eq(1L), eq("\"u1-2\"")))
+                .thenReturn(Mono.just(ResponseEntity.ok().eTag("\"u1-2\"").body(userDto)));
+
+        performAsync(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"u1-2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u1-2\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
     @Test
     void deleteUser() throws Exception {
 
@@ -95,4 +119,11 @@ class UserControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
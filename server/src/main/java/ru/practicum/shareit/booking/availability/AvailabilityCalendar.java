@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Сетка слотов, закодированная длинами чередующихся свободных и занятых серий; первая серия свободная.
+public class AvailabilityCalendar {
+    public static final int MAX_SLOTS = 2000;
+
+    private final long from;
+    private final long to;
+    private final long step;
+    private final int slots;
+    private final BitSet busy;
+
+    public AvailabilityCalendar(LocalDateTime from, LocalDateTime to, Duration step) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Начало периода должно быть раньше конца");
+        }
+        this.from = BookingAvailabilityIndex.toMicros(from);
+        this.to = BookingAvailabilityIndex.toMicros(to);
+        this.step = step.toNanos() / 1000;
+        long count = Math.ceilDiv(this.to - this.from, this.step);
+        if (count > MAX_SLOTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Период не может содержать больше " + MAX_SLOTS + " слотов");
+        }
+        this.slots = (int) count;
+        this.busy = new BitSet(slots);
+    }
+
+    // Бронирования должны быть отсортированы по началу.
+    public void addAll(List<BookingIntervalView> bookings) {
+        long start = 0;
+        long end = Long.MIN_VALUE;
+        for (BookingIntervalView booking : bookings) {
+            long bookingStart = BookingAvailabilityIndex.toMicros(booking.getStart());
+            long bookingEnd = BookingAvailabilityIndex.toMicros(booking.getEnd());
+            if (bookingStart >= end) {
+                mark(start, end);
+                start = bookingStart;
+            }
+            end = Math.max(end, bookingEnd);
+        }
+        mark(start, end);
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public int[] runs() {
+        int[] runs = new int[Math.min(slots, 2 * busy.cardinality()) + 1];
+        int count = 0;
+        int slot = 0;
+        while (slot < slots) {
+            int busyFrom = Math.min(nextBusy(slot), slots);
+            runs[count++] = busyFrom - slot;
+            if (busyFrom == slots) {
+                break;
+            }
+            slot = Math.min(busy.nextClearBit(busyFrom), slots);
+            runs[count++] = slot - busyFrom;
+        }
+        return Arrays.copyOf(runs, count);
+    }
+
+    private int nextBusy(int slot) {
+        int next = busy.nextSetBit(slot);
+        return next < 0 ? slots : next;
+    }
+
+    private void mark(long start, long end) {
+        if (end <= start || end <= from || start >= to) {
+            return;
+        }
+        int first = (int) ((Math.max(start, from) - from) / step);
+        int last = (int) Math.ceilDiv(Math.min(end, to) - from, step);
+        busy.set(first, last);
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Источник истины — ограничение bookings_item_period_excl, индекс отсекает пересечения до записи в базу.
+@Slf4j
+@Component
+public class BookingAvailabilityIndex {
+    public static final String BOOKED_MESSAGE = "Вещь уже забронирована на это время.";
+    static final List<StatusType> ACTIVE_STATUSES = List.of(StatusType.WAITING, StatusType.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervals> items;
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository, BookingProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(properties.getAvailabilityMaxItems())
+                .expireAfterAccess(properties.getAvailabilityIdleTimeout())
+                .build();
+    }
+
+    public void reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        long start = toMicros(booking.getStart());
+        long end = toMicros(booking.getEnd());
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        BookingIntervals intervals = intervals(itemId);
+        intervals.lock.lock();
+        try {
+            load(itemId, intervals, bookingId);
+            if (intervals.overlaps(start, end) && !dropStale(itemId, intervals, start, end)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, BOOKED_MESSAGE);
+            }
+            intervals.add(bookingId, start, end);
+            if (transactional) {
+                intervals.pending.add(bookingId);
+            }
+        } finally {
+            intervals.lock.unlock();
+        }
+        if (transactional) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(itemId, bookingId, status == STATUS_COMMITTED);
+                }
+            });
+        }
+    }
+
+    public void release(Long itemId, Long bookingId) {
+        afterCommit(() -> remove(itemId, bookingId));
+    }
+
+    private BookingIntervals intervals(Long itemId) {
+        return items.get(itemId, id -> new BookingIntervals());
+    }
+
+    // Только что сохраненное вызывающим бронирование может попасть в выборку, поэтому оно пропускается.
+    private void load(Long itemId, BookingIntervals intervals, long ownBookingId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!intervals.loaded) {
+            List<BookingIntervalView> views = bookingRepository.findIntervals(itemId, now, ACTIVE_STATUSES);
+            for (BookingIntervalView view : views) {
+                if (view.getId() != ownBookingId) {
+                    intervals.add(view.getId(), toMicros(view.getStart()), toMicros(view.getEnd()));
+                }
+            }
+            intervals.loaded = true;
+            log.debug("Загружено {} бронирований вещи с id {}.", intervals.size(), itemId);
+        }
+        intervals.prune(toMicros(now));
+    }
+
+    // Убирает из индекса пересекающиеся бронирования, которые в базе уже не активны.
+    private boolean dropStale(Long itemId, BookingIntervals intervals, long start, long end) {
+        List<Long> suspects = intervals.overlapping(start, end);
+        suspects.removeAll(intervals.pending);
+        if (suspects.isEmpty()) {
+            return false;
+        }
+        Set<Long> active = new HashSet<>(bookingRepository.findActiveIds(suspects, LocalDateTime.now(),
+                ACTIVE_STATUSES));
+        for (Long id : suspects) {
+            if (!active.contains(id)) {
+                intervals.remove(id);
+                log.debug("Бронирование с id {} вещи с id {} уже не активно и убрано из индекса.", id, itemId);
+            }
+        }
+        return !intervals.overlaps(start, end);
+    }
+
+    private void remove(Long itemId, long bookingId) {
+        BookingIntervals intervals = items.getIfPresent(itemId);
+        if (intervals != null) {
+            intervals.lock.lock();
+            try {
+                intervals.remove(bookingId);
+            } finally {
+                intervals.lock.unlock();
+            }
+        }
+    }
+
+    private void complete(Long itemId, long bookingId, boolean committed) {
+        BookingIntervals intervals = items.getIfPresent(itemId);
+        if (intervals != null) {
+            intervals.lock.lock();
+            try {
+                intervals.pending.remove(bookingId);
+                if (!committed) {
+                    intervals.remove(bookingId);
+                }
+            } finally {
+                intervals.lock.unlock();
+            }
+        }
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return TimeUnit.SECONDS.toMicros(time.toEpochSecond(ZoneOffset.UTC)) + time.getNano() / 1000;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
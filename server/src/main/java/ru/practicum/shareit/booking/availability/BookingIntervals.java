@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// maxEnds[i] — наибольший конец среди первых i + 1 интервалов, поэтому пересечения ищутся бинарным поиском.
+public class BookingIntervals {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] maxEnds = new long[INITIAL_CAPACITY];
+    private int size;
+    final ReentrantLock lock = new ReentrantLock();
+    // Резервы незавершенных транзакций этого процесса: в базе они еще не видны.
+    final Set<Long> pending = new HashSet<>();
+    boolean loaded;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean overlaps(long start, long end) {
+        int last = lastStartingBefore(end);
+        return last >= 0 && maxEnds[last] > start;
+    }
+
+    public List<Long> overlapping(long start, long end) {
+        List<Long> result = new ArrayList<>();
+        for (int i = lastStartingBefore(end); i >= 0 && maxEnds[i] > start; i--) {
+            if (ends[i] > start) {
+                result.add(ids[i]);
+            }
+        }
+        return result;
+    }
+
+    public void add(long id, long start, long end) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+        }
+        int pos = lastStartingBefore(start + 1) + 1;
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        System.arraycopy(starts, pos, starts, pos + 1, size - pos);
+        System.arraycopy(ends, pos, ends, pos + 1, size - pos);
+        ids[pos] = id;
+        starts[pos] = start;
+        ends[pos] = end;
+        size++;
+        updateMaxEnds(pos);
+    }
+
+    public boolean remove(long id) {
+        for (int pos = 0; pos < size; pos++) {
+            if (ids[pos] == id) {
+                size--;
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos);
+                System.arraycopy(starts, pos + 1, starts, pos, size - pos);
+                System.arraycopy(ends, pos + 1, ends, pos, size - pos);
+                updateMaxEnds(pos);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void prune(long now) {
+        int count = firstEndingAfter(now);
+        if (count == 0) {
+            return;
+        }
+        size -= count;
+        System.arraycopy(ids, count, ids, 0, size);
+        System.arraycopy(starts, count, starts, 0, size);
+        System.arraycopy(ends, count, ends, 0, size);
+        System.arraycopy(maxEnds, count, maxEnds, 0, size);
+    }
+
+    private int lastStartingBefore(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private int firstEndingAfter(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] > time) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private void updateMaxEnds(int from) {
+        for (int i = from; i < size; i++) {
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+}
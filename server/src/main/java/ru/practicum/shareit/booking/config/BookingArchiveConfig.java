@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.booking.archive-enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiveConfig {
+
+    @Bean
+    public BookingArchiver bookingArchiver(BookingArchiveRepository bookingArchiveRepository,
+                                           ObjectProvider<ChangeFeedService> changeFeedService,
+                                           TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                                           BookingProperties properties) {
+        return new BookingArchiver(bookingArchiveRepository, changeFeedService, transactionTemplate, jdbcTemplate,
+                properties);
+    }
+}
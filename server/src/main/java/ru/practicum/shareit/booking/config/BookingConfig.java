@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.service.ItemLocks;
+
+@Configuration
+@EnableConfigurationProperties(BookingProperties.class)
+public class BookingConfig {
+
+    @Bean
+    public ItemLocks itemLocks(BookingProperties properties) {
+        return new ItemLocks(properties.getLockStripes());
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpirySweeper;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.booking.expiry-enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryConfig {
+
+    @Bean
+    public BookingExpirySweeper bookingExpirySweeper(BookingRepository bookingRepository,
+                                                     BookingAvailabilityIndex availabilityIndex,
+                                                     ObjectProvider<ChangeFeedService> changeFeedService,
+                                                     TransactionTemplate transactionTemplate,
+                                                     BookingProperties properties) {
+        return new BookingExpirySweeper(bookingRepository, availabilityIndex, changeFeedService,
+                transactionTemplate, properties);
+    }
+}
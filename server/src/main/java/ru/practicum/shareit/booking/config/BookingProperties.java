@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking")
+public class BookingProperties {
+    private int lockStripes = 64;
+    private int confirmAttempts = 3;
+    private Duration confirmBackoff = Duration.ofMillis(20);
+    private boolean expiryEnabled = true;
+    private Duration expiryInterval = Duration.ofMinutes(1);
+    private Duration expiryTtl = Duration.ofDays(7);
+    private int expiryChunkSize = 500;
+    private int expiryMaxChunks = 100;
+    private boolean archiveEnabled = true;
+    private Duration archiveInterval = Duration.ofHours(1);
+    private int archiveAfterMonths = 12;
+    private int archiveChunkSize = 1000;
+    private int archiveMaxChunks = 100;
+    private long availabilityMaxItems = 10_000;
+    private Duration availabilityIdleTimeout = Duration.ofMinutes(30);
+}
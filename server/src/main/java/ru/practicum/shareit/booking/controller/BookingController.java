@@ -2,12 +2,17 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.ArchivedBookingDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -18,11 +23,14 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingArchiveService bookingArchiveService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, BookingArchiveService bookingArchiveService) {
         this.bookingService = bookingService;
+        this.bookingArchiveService = bookingArchiveService;
     }
 
     @PostMapping
@@ -43,7 +51,11 @@ public class BookingController {
     public ResponseEntity<BookingResponseDto> getById(@PathVariable("bookingId")
                                                       long bookingId,
                                                       @RequestHeader(value = USER_ID_HEADER)
-                                                      Long userId) {
+                                                      Long userId,
+                                                      WebRequest request) {
+        if (request.checkNotModified(bookingService.getETagById(bookingId, userId))) {
+            return null;
+        }
         return new ResponseEntity<>(bookingService.getById(bookingId, userId), HttpStatus.OK);
     }
 
@@ -52,8 +64,12 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             @RequestHeader(USER_ID_HEADER) long bookerId) {
-        return new ResponseEntity<>(bookingService.getAllByBooker(from, size, state, bookerId), HttpStatus.OK);
+        List<BookingResponseDto> bookings = cursor == null
+                ? bookingService.getAllByBooker(from, size, state, bookerId)
+                : bookingService.getAllByBookerAfter(cursor, size, state, bookerId);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
@@ -61,7 +77,34 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             @RequestHeader(USER_ID_HEADER) long ownerId) {
-        return new ResponseEntity<>(bookingService.getAllByOwner(from, size, state, ownerId), HttpStatus.OK);
+        List<BookingResponseDto> bookings = cursor == null
+                ? bookingService.getAllByOwner(from, size, state, ownerId)
+                : bookingService.getAllByOwnerAfter(cursor, size, state, ownerId);
+        return withNextCursor(bookings, size);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/archive")
+    public List<ArchivedBookingDto> getArchivedByBooker(@RequestParam(defaultValue = "0") int from,
+                                                        @RequestParam(defaultValue = "10") int size,
+                                                        @RequestHeader(USER_ID_HEADER) long bookerId) {
+        return bookingArchiveService.getArchivedByBooker(from, size, bookerId);
+    }
+
+    @GetMapping("/owner/archive")
+    public List<ArchivedBookingDto> getArchivedByOwner(@RequestParam(defaultValue = "0") int from,
+                                                       @RequestParam(defaultValue = "10") int size,
+                                                       @RequestHeader(USER_ID_HEADER) long ownerId) {
+        return bookingArchiveService.getArchivedByOwner(from, size, ownerId);
+    }
+
+    private static ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings,
+                                                                           int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            headers.set(NEXT_CURSOR_HEADER, BookingCursor.after(bookings.get(bookings.size() - 1)).encode());
+        }
+        return new ResponseEntity<>(bookings, headers, HttpStatus.OK);
+    }
+}
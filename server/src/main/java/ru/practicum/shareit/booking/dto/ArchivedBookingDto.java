@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.enums.StatusType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedBookingDto {
+    private Long id;
+    private Long itemId;
+    private String itemName;
+    private Long bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private StatusType status;
+}
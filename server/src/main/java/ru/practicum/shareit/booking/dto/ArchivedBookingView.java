@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface ArchivedBookingView {
+    Long getId();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    String getStatus();
+}
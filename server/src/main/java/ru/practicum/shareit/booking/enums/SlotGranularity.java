@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.enums;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+@Getter
+public enum SlotGranularity {
+    HOUR(Duration.ofHours(1), Duration.ofDays(7)),
+    DAY(Duration.ofDays(1), Duration.ofDays(30));
+
+    private final Duration step;
+    private final Duration defaultRange;
+
+    SlotGranularity(Duration step, Duration defaultRange) {
+        this.step = step;
+        this.defaultRange = defaultRange;
+    }
+
+    public static SlotGranularity from(String granularity) {
+        for (SlotGranularity value : values()) {
+            if (value.name().equalsIgnoreCase(granularity)) {
+                return value;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный шаг календаря: " + granularity);
+    }
+}
@@ -4,5 +4,6 @@ public enum StatusType {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED,
+    EXPIRED
 }
\ No newline at end of file
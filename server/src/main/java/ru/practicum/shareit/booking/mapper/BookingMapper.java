@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.mapper;
 
+import ru.practicum.shareit.booking.dto.ArchivedBookingDto;
+import ru.practicum.shareit.booking.dto.ArchivedBookingView;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -82,4 +86,26 @@ public class BookingMapper {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static BookingShortDto viewToShort(ItemBookingView view) {
+        if (view == null) {
+            return null;
+        }
+        return BookingShortDto.builder()
+                .id(view.getId())
+                .bookerId(view.getBookerId())
+                .build();
+    }
+
+    public static ArchivedBookingDto viewToArchived(ArchivedBookingView view) {
+        return ArchivedBookingDto.builder()
+                .id(view.getId())
+                .itemId(view.getItemId())
+                .itemName(view.getItemName())
+                .bookerId(view.getBookerId())
+                .start(view.getStartDate())
+                .end(view.getEndDate())
+                .status(StatusType.valueOf(view.getStatus()))
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.change.service.ChangeFeedListener;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -12,13 +13,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@EntityListeners(ChangeFeedListener.class)
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "start_date")
@@ -36,4 +39,7 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private StatusType status;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.ArchivedBookingView;
+import ru.practicum.shareit.booking.dto.LockedBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingArchiveRepository extends Repository<Booking, Long> {
+
+    @Query(value = "SELECT b.id AS id, b.item_id AS itemId, " +
+            "(SELECT i.owner_id FROM items i WHERE i.id = b.item_id) AS ownerId " +
+            "FROM bookings b " +
+            "WHERE b.end_date < :before " +
+            "AND (b.status <> 'APPROVED' OR EXISTS (SELECT 1 FROM bookings n WHERE n.item_id = b.item_id " +
+            "AND n.status = 'APPROVED' AND n.start_date < :now AND n.end_date > b.end_date)) " +
+            "ORDER BY b.id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<LockedBookingView> lockArchivable(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now,
+                                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, item_id, booker_id, start_date, end_date, status) " +
+            "SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status " +
+            "FROM bookings b WHERE b.id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM bookings WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT a.id AS id, a.item_id AS itemId, i.name AS itemName, a.booker_id AS bookerId, " +
+            "a.start_date AS startDate, a.end_date AS endDate, a.status AS status " +
+            "FROM bookings_archive a " +
+            "LEFT JOIN items i ON i.id = a.item_id " +
+            "WHERE a.booker_id = :bookerId " +
+            "ORDER BY a.end_date DESC, a.id DESC " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<ArchivedBookingView> findByBooker(@Param("bookerId") Long bookerId, @Param("from") int from,
+                                           @Param("size") int size);
+
+    @Query(value = "SELECT a.id AS id, a.item_id AS itemId, i.name AS itemName, a.booker_id AS bookerId, " +
+            "a.start_date AS startDate, a.end_date AS endDate, a.status AS status " +
+            "FROM bookings_archive a " +
+            "JOIN items i ON i.id = a.item_id " +
+            "WHERE i.owner_id = :ownerId " +
+            "ORDER BY a.end_date DESC, a.id DESC " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<ArchivedBookingView> findByOwner(@Param("ownerId") Long ownerId, @Param("from") int from,
+                                          @Param("size") int size);
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM bookings_archive a " +
+            "WHERE a.booker_id = :bookerId AND a.item_id = :itemId", nativeQuery = true)
+    boolean existsByBookerIdAndItemId(@Param("bookerId") Long bookerId, @Param("itemId") Long itemId);
+}
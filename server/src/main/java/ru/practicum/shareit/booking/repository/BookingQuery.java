@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.time.LocalDateTime;
+
+// Фильтры, равные null, в запрос не попадают.
+@Getter
+@Builder
+public class BookingQuery {
+    private final BookingRole role;
+    private final Long userId;
+    @Builder.Default
+    private final BookingState state = BookingState.ALL;
+    private final LocalDateTime now;
+    private final Long itemId;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    private final BookingCursor cursor;
+    @Builder.Default
+    private final Sort.Direction direction = Sort.Direction.DESC;
+    private final int offset;
+    private final int limit;
+}
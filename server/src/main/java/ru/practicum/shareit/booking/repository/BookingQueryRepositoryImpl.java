@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Значения передаются только параметрами, чтобы запросы одной формы переиспользовали план.
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final String SELECT = "SELECT B FROM Booking B JOIN FETCH B.item I JOIN FETCH I.owner "
+            + "JOIN FETCH B.booker WHERE ";
+
+    private final EntityManager entityManager;
+
+    public BookingQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Booking> findBookings(BookingQuery query) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> parameters = new HashMap<>();
+
+        switch (query.getRole()) {
+            case BOOKER -> jpql.append("B.booker.id = :userId");
+            case OWNER -> jpql.append("I.owner.id = :userId");
+        }
+        parameters.put("userId", query.getUserId());
+
+        switch (query.getState()) {
+            case ALL -> {
+            }
+            case CURRENT -> {
+                jpql.append(" AND B.start < :now AND B.end > :now");
+                parameters.put("now", query.getNow());
+            }
+            case PAST -> {
+                jpql.append(" AND B.end < :now");
+                parameters.put("now", query.getNow());
+            }
+            case FUTURE -> {
+                jpql.append(" AND B.start > :now");
+                parameters.put("now", query.getNow());
+            }
+            case WAITING, REJECTED -> {
+                jpql.append(" AND B.status = :status");
+                parameters.put("status", StatusType.valueOf(query.getState().name()));
+            }
+        }
+
+        if (query.getItemId() != null) {
+            jpql.append(" AND I.id = :itemId");
+            parameters.put("itemId", query.getItemId());
+        }
+        if (query.getRangeStart() != null) {
+            jpql.append(" AND B.end > :rangeStart");
+            parameters.put("rangeStart", query.getRangeStart());
+        }
+        if (query.getRangeEnd() != null) {
+            jpql.append(" AND B.start < :rangeEnd");
+            parameters.put("rangeEnd", query.getRangeEnd());
+        }
+
+        boolean ascending = query.getDirection() == Sort.Direction.ASC;
+        BookingCursor cursor = query.getCursor();
+        if (cursor != null) {
+            jpql.append(ascending
+                    ? " AND B.start >= :cursorStart AND (B.start > :cursorStart OR B.id > :cursorId)"
+                    : " AND B.start <= :cursorStart AND (B.start < :cursorStart OR B.id < :cursorId)");
+            parameters.put("cursorStart", cursor.getStart());
+            parameters.put("cursorId", cursor.getId());
+        }
+        jpql.append(ascending ? " ORDER BY B.start ASC, B.id ASC" : " ORDER BY B.start DESC, B.id DESC");
+
+        TypedQuery<Booking> typedQuery = entityManager.createQuery(jpql.toString(), Booking.class)
+                .setFirstResult(query.getOffset())
+                .setMaxResults(query.getLimit());
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery.getResultList();
+    }
+}
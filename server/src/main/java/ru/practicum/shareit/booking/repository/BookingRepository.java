@@ -1,46 +1,24 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.dto.LockedBookingView;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findBookingByBookerOrderByStartDesc(User user);
-
-    List<Booking> findBookingByBookerAndStatusOrderByStartDesc(User user, StatusType state);
-
-    List<Booking> findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(User user, LocalDateTime dateTime,
-                                                                               LocalDateTime dateTime1);
-
-    List<Booking> findBookingByBookerAndEndBeforeOrderByStartDesc(User user, LocalDateTime dateTime);
-
-    List<Booking> findBookingByBookerAndStartAfterOrderByStartDesc(User user, LocalDateTime dateTime);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.status = ?2 order by B.start desc")
-    List<Booking> getBookingsForOwnerByStatus(Long ownerId, StatusType status);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 ORDER BY B.start DESC")
-    List<Booking> getAllBookingsForOwner(Long ownerId);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 " +
-            "AND B.start < ?2 AND B.end > ?3 ORDER BY B.start DESC")
-    List<Booking> getCurrentBookingForOwner(Long ownerId, LocalDateTime date1, LocalDateTime date2);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.end < ?2 ORDER BY B.start DESC")
-    List<Booking> getPastBookingForOwner(Long ownerId, LocalDateTime date);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.start > ?2 ORDER BY B.start DESC")
-    List<Booking> getFutureBookingForOwner(Long ownerId, LocalDateTime date);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
     List<Booking> findAllByBookerIdAndItemIdAndEndBefore(Long userId, Long itemId, LocalDateTime localDateTime);
 
@@ -50,6 +28,85 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Booking findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(long itemId, LocalDateTime start,
                                                                    StatusType statusType);
 
+    @Query(value = "SELECT ranked.item_id AS itemId, ranked.id AS id, ranked.booker_id AS bookerId, " +
+            "ranked.is_last AS last " +
+            "FROM (SELECT b.item_id, b.id, b.booker_id, b.start_date < :now AS is_last, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date < :now " +
+            "ORDER BY CASE WHEN b.start_date < :now THEN b.end_date END DESC, b.start_date ASC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = :status AND b.start_date <> :now) ranked " +
+            "WHERE ranked.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now,
+                                                  @Param("status") String status);
+
+    @Query("SELECT bk.version AS version, i.version AS itemVersion, b.version AS bookerVersion, " +
+            "b.id AS bookerId, i.owner.id AS ownerId " +
+            "FROM Booking bk " +
+            "JOIN bk.item i " +
+            "JOIN bk.booker b " +
+            "WHERE bk.id = :id")
+    Optional<BookingVersionView> findVersionViewById(@Param("id") Long id);
+
+    @Query("SELECT bk.item.id FROM Booking bk WHERE bk.id = :id")
+    Optional<Long> findItemIdById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(bk) > 0 FROM Booking bk " +
+            "WHERE bk.item.id = :itemId " +
+            "AND bk.start < :end " +
+            "AND bk.end > :start " +
+            "AND bk.status = :status " +
+            "AND bk.id <> :excludeId")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end, @Param("status") StatusType status,
+                              @Param("excludeId") Long excludeId);
+
+    @Query("SELECT bk.id AS id, bk.start AS start, bk.end AS end " +
+            "FROM Booking bk " +
+            "WHERE bk.item.id = :itemId " +
+            "AND bk.end > :now " +
+            "AND bk.status IN :statuses " +
+            "ORDER BY bk.start")
+    List<BookingIntervalView> findIntervals(@Param("itemId") Long itemId, @Param("now") LocalDateTime now,
+                                            @Param("statuses") Collection<StatusType> statuses);
+
+    @Query("SELECT bk.id " +
+            "FROM Booking bk " +
+            "WHERE bk.id IN :ids " +
+            "AND bk.end > :now " +
+            "AND bk.status IN :statuses")
+    List<Long> findActiveIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+                             @Param("statuses") Collection<StatusType> statuses);
+
+    @Query("SELECT bk.id AS id, bk.start AS start, bk.end AS end " +
+            "FROM Booking bk " +
+            "WHERE bk.item.id = :itemId " +
+            "AND bk.start < :to " +
+            "AND bk.end > :from " +
+            "AND bk.status IN :statuses " +
+            "ORDER BY bk.start")
+    List<BookingIntervalView> findIntervalsBetween(@Param("itemId") Long itemId, @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("statuses") Collection<StatusType> statuses);
+
+    @Query(value = "SELECT b.id AS id, b.item_id AS itemId, " +
+            "(SELECT i.owner_id FROM items i WHERE i.id = b.item_id) AS ownerId " +
+            "FROM bookings b " +
+            "WHERE b.status = 'WAITING' " +
+            "AND (b.start_date <= :now OR b.created <= :createdBefore) " +
+            "ORDER BY b.id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<LockedBookingView> lockExpiring(@Param("now") LocalDateTime now,
+                                         @Param("createdBefore") LocalDateTime createdBefore,
+                                         @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE bookings " +
+            "SET status = :status, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'WAITING'", nativeQuery = true)
+    int expireWaiting(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
     @Query("SELECT bk FROM Booking bk " +
             "JOIN FETCH bk.item i " +
             "JOIN FETCH bk.booker b " +
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.ArchivedBookingDto;
+
+import java.util.List;
+
+public interface BookingArchiveService {
+
+    List<ArchivedBookingDto> getArchivedByBooker(int from, int size, Long bookerId);
+
+    List<ArchivedBookingDto> getArchivedByOwner(int from, int size, Long ownerId);
+}
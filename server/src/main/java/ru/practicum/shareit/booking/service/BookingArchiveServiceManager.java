@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ArchivedBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class BookingArchiveServiceManager implements BookingArchiveService {
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public BookingArchiveServiceManager(BookingArchiveRepository bookingArchiveRepository,
+                                        UserRepository userRepository) {
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public List<ArchivedBookingDto> getArchivedByBooker(int from, int size, Long bookerId) {
+        checkUser(bookerId);
+        return bookingArchiveRepository.findByBooker(bookerId, from, size).stream()
+                .map(BookingMapper::viewToArchived)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ArchivedBookingDto> getArchivedByOwner(int from, int size, Long ownerId) {
+        checkUser(ownerId);
+        return bookingArchiveRepository.findByOwner(ownerId, from, size).stream()
+                .map(BookingMapper::viewToArchived)
+                .collect(Collectors.toList());
+    }
+
+    private void checkUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+    }
+}
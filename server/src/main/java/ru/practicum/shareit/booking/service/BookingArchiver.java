@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.LockedBookingView;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.change.enums.ChangeType;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Последнее начавшееся подтвержденное бронирование вещи не архивируется, чтобы не терять lastBooking.
+@Slf4j
+public class BookingArchiver implements SchedulingConfigurer, MeterBinder {
+    public static final String METRIC_PREFIX = "shareit.booking.archive";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long PARTITION_LOCK = 0x5348415245L;
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ObjectProvider<ChangeFeedService> changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingProperties properties;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder archived = new LongAdder();
+    private Boolean partitioned;
+
+    public BookingArchiver(BookingArchiveRepository bookingArchiveRepository,
+                           ObjectProvider<ChangeFeedService> changeFeedService,
+                           TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                           BookingProperties properties) {
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(@NonNull ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::archive, properties.getArchiveInterval(),
+                properties.getArchiveInterval()));
+    }
+
+    public int archive() {
+        LocalDateTime before = LocalDate.now().withDayOfMonth(1)
+                .minusMonths(properties.getArchiveAfterMonths()).atStartOfDay();
+        createPartitions(before);
+        int chunkSize = Math.max(properties.getArchiveChunkSize(), 1);
+        int total = 0;
+        int chunk = 0;
+        int moved;
+        do {
+            Integer result = transactionTemplate.execute(status -> archiveChunk(before, chunkSize));
+            moved = result == null ? 0 : result;
+            total += moved;
+            chunk++;
+        } while (moved == chunkSize && chunk < properties.getArchiveMaxChunks());
+
+        runs.increment();
+        archived.add(total);
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, закончившихся до {}.", total, before);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime before, int chunkSize) {
+        List<LockedBookingView> views = bookingArchiveRepository.lockArchivable(before, LocalDateTime.now(),
+                chunkSize);
+        if (views.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = views.stream().map(LockedBookingView::getId).toList();
+        bookingArchiveRepository.copyToArchive(ids);
+        bookingArchiveRepository.deleteArchived(ids);
+        ChangeFeedService feed = changeFeedService.getIfAvailable();
+        if (feed != null) {
+            views.forEach(view -> feed.publish(ChangeType.BOOKING, view.getId(), view.getItemId(),
+                    view.getOwnerId()));
+        }
+        return ids.size();
+    }
+
+    private void createPartitions(LocalDateTime before) {
+        if (!isPartitioned()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + PARTITION_LOCK + ")");
+            jdbcTemplate.queryForList("SELECT DISTINCT CAST(date_trunc('month', end_date) AS DATE) AS month " +
+                    "FROM bookings_archive_default " +
+                    "UNION " +
+                    "SELECT CAST(date_trunc('month', end_date) AS DATE) FROM bookings WHERE end_date < ? " +
+                    "ORDER BY month", LocalDate.class, before).forEach(this::createPartition);
+        });
+    }
+
+    // Пока в секции по умолчанию есть строки месяца, она отсоединяется, а строки переносятся в новую секцию.
+    private void createPartition(LocalDate month) {
+        String partition = "bookings_archive_" + month.format(PARTITION_SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                partition))) {
+            return;
+        }
+        String create = "CREATE TABLE " + partition + " PARTITION OF bookings_archive FOR VALUES FROM ('" + month
+                + "') TO ('" + month.plusMonths(1) + "')";
+        String range = " WHERE end_date >= '" + month + "' AND end_date < '" + month.plusMonths(1) + "'";
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM bookings_archive_default" + range + ")", Boolean.class))) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE bookings_archive DETACH PARTITION bookings_archive_default");
+        jdbcTemplate.execute(create);
+        int moved = jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM bookings_archive_default" + range);
+        jdbcTemplate.update("DELETE FROM bookings_archive_default" + range);
+        jdbcTemplate.execute("ALTER TABLE bookings_archive ATTACH PARTITION bookings_archive_default DEFAULT");
+        log.info("Создана секция архива {}, в нее перенесено {} бронирований из секции по умолчанию.", partition,
+                moved);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".runs", runs, LongAdder::sum)
+                .description("Запуски переноса бронирований в архив")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".archived", archived, LongAdder::sum)
+                .description("Бронирования, перенесенные в архив")
+                .register(registry);
+    }
+}
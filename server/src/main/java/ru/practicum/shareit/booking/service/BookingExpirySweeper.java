@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.LockedBookingView;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.change.enums.ChangeType;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Версия увеличивается, чтобы подтверждение, прочитавшее бронирование раньше, не перезаписало статус.
+@Slf4j
+public class BookingExpirySweeper implements SchedulingConfigurer, MeterBinder {
+    public static final String METRIC_PREFIX = "shareit.booking.expiry";
+
+    private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ObjectProvider<ChangeFeedService> changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingProperties properties;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicLong lastRunExpired = new AtomicLong();
+
+    public BookingExpirySweeper(BookingRepository bookingRepository, BookingAvailabilityIndex availabilityIndex,
+                                ObjectProvider<ChangeFeedService> changeFeedService,
+                                TransactionTemplate transactionTemplate, BookingProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(@NonNull ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::sweep, properties.getExpiryInterval(),
+                properties.getExpiryInterval()));
+    }
+
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdBefore = now.minus(properties.getExpiryTtl());
+        int chunkSize = Math.max(properties.getExpiryChunkSize(), 1);
+        int total = 0;
+        int chunk = 0;
+        int updated;
+        do {
+            Integer result = transactionTemplate.execute(status -> expireChunk(now, createdBefore, chunkSize));
+            updated = result == null ? 0 : result;
+            total += updated;
+            chunk++;
+        } while (updated == chunkSize && chunk < properties.getExpiryMaxChunks());
+
+        runs.increment();
+        chunks.add(chunk);
+        expired.add(total);
+        lastRunExpired.set(total);
+        if (total > 0) {
+            log.info("Истек срок ожидания {} бронирований, порций: {}.", total, chunk);
+        }
+        return total;
+    }
+
+    private int expireChunk(LocalDateTime now, LocalDateTime createdBefore, int chunkSize) {
+        List<LockedBookingView> views = bookingRepository.lockExpiring(now, createdBefore, chunkSize);
+        if (views.isEmpty()) {
+            return 0;
+        }
+        int updated = bookingRepository.expireWaiting(views.stream().map(LockedBookingView::getId).toList(),
+                StatusType.EXPIRED.name());
+        ChangeFeedService feed = changeFeedService.getIfAvailable();
+        for (LockedBookingView view : views) {
+            availabilityIndex.release(view.getItemId(), view.getId());
+            if (feed != null) {
+                feed.publish(ChangeType.BOOKING, view.getId(), view.getItemId(), view.getOwnerId());
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".runs", runs, LongAdder::sum)
+                .description("Запуски перевода неподтвержденных бронирований в EXPIRED")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".chunks", chunks, LongAdder::sum)
+                .description("Порции UPDATE, выполненные при переводе в EXPIRED")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".expired", expired, LongAdder::sum)
+                .description("Бронирования, переведенные в EXPIRED")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".last.run.expired", lastRunExpired, AtomicLong::get)
+                .description("Бронирования, переведенные в EXPIRED последним запуском")
+                .register(registry);
+    }
+
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+}
@@ -13,7 +13,13 @@ public interface BookingService {
 
     BookingResponseDto getById(Long bookingId, Long userId);
 
+    String getETagById(Long bookingId, Long userId);
+
     List<BookingResponseDto> getAllByBooker(int from, int size, String state, Long bookerId);
 
+    List<BookingResponseDto> getAllByBookerAfter(String cursor, int size, String state, Long bookerId);
+
     List<BookingResponseDto> getAllByOwner(int from, int size, String state, Long bookerId);
+
+    List<BookingResponseDto> getAllByOwnerAfter(String cursor, int size, String state, Long ownerId);
 }
\ No newline at end of file
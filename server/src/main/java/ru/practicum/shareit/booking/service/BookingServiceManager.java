@@ -2,17 +2,28 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -21,22 +32,36 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @Slf4j
 public class BookingServiceManager implements BookingService {
+    static final String CONCURRENT_UPDATE_MESSAGE = "Бронирование одновременно изменено, повторите запрос.";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemLocks itemLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingProperties bookingProperties;
 
     @Autowired
     public BookingServiceManager(BookingRepository bookingRepository, ItemRepository itemRepository,
-                                 UserRepository userRepository) {
+                                 UserRepository userRepository, BookingAvailabilityIndex availabilityIndex,
+                                 ItemLocks itemLocks, TransactionTemplate transactionTemplate,
+                                 BookingProperties bookingProperties) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.itemLocks = itemLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.bookingProperties = bookingProperties;
     }
 
     @Override
@@ -64,14 +89,46 @@ public class BookingServiceManager implements BookingService {
         booking.setBooker(user);
         booking.setItem(item);
         bookingRepository.save(booking);
+        try {
+            availabilityIndex.reserve(booking);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, BookingAvailabilityIndex.BOOKED_MESSAGE);
+        }
         log.info("Создано бронирование {} от пользователя с id {}.", booking, userId);
         BookingResponseDto book = BookingMapper.bookingToResponse(booking);
         return book;
     }
 
+    // Каждая попытка идет в своей транзакции под блокировкой вещи, конфликт версий повторяется с паузой.
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingResponseDto confirm(Long bookingId, Long userOwnerId, boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        Lock lock = itemLocks.forItem(itemId);
+        int attempts = Math.max(bookingProperties.getConfirmAttempts(), 1);
+        for (int attempt = 1; ; attempt++) {
+            lock.lock();
+            try {
+                return transactionTemplate.execute(status -> doConfirm(bookingId, userOwnerId, approved));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= attempts) {
+                    log.warn("Бронирование с id {} не подтверждено за {} попыток: {}", bookingId, attempt,
+                            e.getMessage());
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, CONCURRENT_UPDATE_MESSAGE);
+                }
+                log.debug("Бронирование с id {} изменено параллельно, попытка {}.", bookingId, attempt);
+            } catch (DataIntegrityViolationException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, BookingAvailabilityIndex.BOOKED_MESSAGE);
+            } finally {
+                lock.unlock();
+            }
+            backoff(attempt);
+        }
+    }
+
+    private BookingResponseDto doConfirm(Long bookingId, Long userOwnerId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
@@ -94,16 +151,35 @@ public class BookingServiceManager implements BookingService {
         }
 
         if (approved) {
+            if (bookingRepository.existsOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                    StatusType.APPROVED, booking.getId())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, BookingAvailabilityIndex.BOOKED_MESSAGE);
+            }
             booking.setStatus(StatusType.APPROVED);
             log.info("Владелец вещи  c id {} подтвердил запрос на бронирование с id {} ", userOwnerId, booking.getId());
         } else {
             booking.setStatus(StatusType.REJECTED);
+            availabilityIndex.release(booking.getItem().getId(), booking.getId());
             log.info("Владелец c id {} отклонил запрос на бронирование с id {} ", userOwnerId, booking.getId());
         }
+        bookingRepository.flush();
 
         return BookingMapper.bookingToResponse(booking);
     }
 
+    private void backoff(int attempt) {
+        long pause = bookingProperties.getConfirmBackoff().toMillis() * attempt;
+        if (pause <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pause + ThreadLocalRandom.current().nextLong(pause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, CONCURRENT_UPDATE_MESSAGE);
+        }
+    }
+
     @Override
     public BookingResponseDto getById(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -118,68 +194,57 @@ public class BookingServiceManager implements BookingService {
         return BookingMapper.bookingToResponse(booking);
     }
 
+    @Override
+    public String getETagById(Long bookingId, Long userId) {
+        BookingVersionView view = bookingRepository.findVersionViewById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронировнаие не найдено"));
+
+        if (!userId.equals(view.getBookerId()) && !userId.equals(view.getOwnerId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Данные о бронировании может видеть только" +
+                    " владелец или заказчик.");
+        }
+        return EntityTags.of("b", bookingId, view.getVersion(), view.getItemVersion(), view.getBookerVersion());
+    }
+
     @Override
     public List<BookingResponseDto> getAllByBooker(int from, int size, String state, Long bookerId) {
-        User user = userRepository.findById(bookerId).orElseThrow(() -> new NotFoundException("Пользователь" +
-                "не найден"));
-        List<Booking> bookList;
-        switch (state) {
-            case "ALL":
-                bookList = bookingRepository.findBookingByBookerOrderByStartDesc(user);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                bookList = bookingRepository.findBookingByBookerAndStatusOrderByStartDesc(user,
-                        StatusType.valueOf(state));
-                break;
-            case "CURRENT":
-                LocalDateTime dateTime = LocalDateTime.now();
-                bookList = bookingRepository.findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(user,
-                        dateTime, dateTime);
-                break;
-            case "PAST":
-                LocalDateTime dateTime1 = LocalDateTime.now();
-                bookList = bookingRepository.findBookingByBookerAndEndBeforeOrderByStartDesc(user, dateTime1);
-                break;
-            case "FUTURE":
-                LocalDateTime dateTime2 = LocalDateTime.now();
-                bookList = bookingRepository.findBookingByBookerAndStartAfterOrderByStartDesc(user, dateTime2);
-                break;
-            default:
-                throw new ConditionsNotMetException("Данный BookingState не найден");
-        }
-
-        return bookList.stream().map(BookingMapper::bookingToResponse).collect(Collectors.toList());
+        return findBookings(BookingRole.BOOKER, state, bookerId, null, from, size);
+    }
+
+    @Override
+    public List<BookingResponseDto> getAllByBookerAfter(String cursor, int size, String state, Long bookerId) {
+        return findBookings(BookingRole.BOOKER, state, bookerId, BookingCursor.decode(cursor), 0, size);
     }
 
     @Override
     public List<BookingResponseDto> getAllByOwner(int from, int size, String state, Long ownerId) {
-        userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        List<Booking> bookList;
-        switch (state) {
-            case "ALL":
-                bookList = bookingRepository.getAllBookingsForOwner(ownerId);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                bookList = bookingRepository.getBookingsForOwnerByStatus(ownerId, StatusType.valueOf(state));
-                break;
-            case "CURRENT":
-                LocalDateTime dateTime = LocalDateTime.now();
-                bookList = bookingRepository.getCurrentBookingForOwner(ownerId, dateTime, dateTime);
-                break;
-            case "PAST":
-                LocalDateTime dateTime1 = LocalDateTime.now();
-                bookList = bookingRepository.getPastBookingForOwner(ownerId, dateTime1);
-                break;
-            case "FUTURE":
-                LocalDateTime dateTime2 = LocalDateTime.now();
-                bookList = bookingRepository.getFutureBookingForOwner(ownerId, dateTime2);
-                break;
-            default:
-                throw new ConditionsNotMetException("Данный BookingState не найден");
-        }
-
-        return bookList.stream().map(BookingMapper::bookingToResponse).collect(Collectors.toList());
+        return findBookings(BookingRole.OWNER, state, ownerId, null, from, size);
+    }
+
+    @Override
+    public List<BookingResponseDto> getAllByOwnerAfter(String cursor, int size, String state, Long ownerId) {
+        return findBookings(BookingRole.OWNER, state, ownerId, BookingCursor.decode(cursor), 0, size);
+    }
+
+    private List<BookingResponseDto> findBookings(BookingRole role, String state, Long userId, BookingCursor cursor,
+                                                  int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Параметр from не может быть отрицательным, а size должен быть больше нуля");
+        }
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(BookingState.from(state))
+                .now(LocalDateTime.now())
+                .cursor(cursor)
+                .offset(from)
+                .limit(size)
+                .build();
+
+        return bookingRepository.findBookings(query).stream()
+                .map(BookingMapper::bookingToResponse)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ItemLocks {
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final ReentrantLock[] stripes;
+    private final int shift;
+
+    public ItemLocks(int stripes) {
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(stripes, 2) - 1);
+        this.stripes = new ReentrantLock[1 << bits];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.shift = 64 - bits;
+    }
+
+    public Lock forItem(long itemId) {
+        return stripes[(int) ((itemId * GOLDEN_RATIO) >>> shift)];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
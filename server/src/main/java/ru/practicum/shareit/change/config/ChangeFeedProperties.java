@@ -0,0 +1,13 @@
+package ru.practicum.shareit.change.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.changes")
+public class ChangeFeedProperties {
+    private Duration retention = Duration.ofHours(1);
+    private Duration pruneInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.change.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+    private final ChangeFeedService changeFeedService;
+
+    @Autowired
+    public ChangeController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedDto> getChanges(@RequestParam(defaultValue = "-1") long after,
+                                                    @RequestParam(defaultValue = "1000") int size) {
+        return new ResponseEntity<>(changeFeedService.getChangesAfter(after, size), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.change.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeFeedDto {
+    private long lastSeq;
+    private boolean reset;
+    private List<ChangeDto> changes;
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.change.enums;
+
+public enum ChangeType {
+    ITEM,
+    BOOKING,
+    USER,
+    COMMENT,
+    REQUEST
+}
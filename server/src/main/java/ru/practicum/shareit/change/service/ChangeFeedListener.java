@@ -0,0 +1,48 @@
+package ru.practicum.shareit.change.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.change.enums.ChangeType;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+// Создается Hibernate через контейнер Spring; без ленты изменений в контексте ничего не делает.
+public class ChangeFeedListener {
+    private final ObjectProvider<ChangeFeedService> changeFeedService;
+
+    public ChangeFeedListener(ObjectProvider<ChangeFeedService> changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ChangeFeedService feed = changeFeedService.getIfAvailable();
+        if (feed == null) {
+            return;
+        }
+        switch (entity) {
+            case Item item -> feed.publish(ChangeType.ITEM, item.getId());
+            case Booking booking -> publishForItem(feed, ChangeType.BOOKING, booking.getId(), booking.getItem());
+            case User user -> feed.publish(ChangeType.USER, user.getId());
+            case Comment comment -> publishForItem(feed, ChangeType.COMMENT, comment.getId(), comment.getItem());
+            case ItemRequest request -> feed.publish(ChangeType.REQUEST, request.getId());
+            default -> {
+            }
+        }
+    }
+
+    private static void publishForItem(ChangeFeedService feed, ChangeType type, Long id, Item item) {
+        if (item == null) {
+            feed.publish(type, id);
+            return;
+        }
+        feed.publish(type, id, item.getId(), item.getOwner() != null ? item.getOwner().getId() : null);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.change.service;
+
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.change.enums.ChangeType;
+
+public interface ChangeFeedService {
+
+    // Внутри транзакции изменения попадают в ленту только после коммита.
+    default void publish(ChangeType type, Long id) {
+        publish(type, id, null, null);
+    }
+
+    void publish(ChangeType type, Long id, Long itemId, Long itemOwnerId);
+
+    ChangeFeedDto getChangesAfter(long after, int size);
+}
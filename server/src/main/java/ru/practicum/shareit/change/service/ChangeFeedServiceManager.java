@@ -0,0 +1,137 @@
+package ru.practicum.shareit.change.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.change.config.ChangeFeedProperties;
+import ru.practicum.shareit.change.dto.ChangeDto;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.change.enums.ChangeType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class ChangeFeedServiceManager implements ChangeFeedService, SchedulingConfigurer {
+    // Более молодой пропуск в seq может быть еще не зафиксированной записью.
+    public static final int GAP_TIMEOUT_SECONDS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeFeedProperties properties;
+
+    @Autowired
+    public ChangeFeedServiceManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    ChangeFeedProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(@NonNull ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::prune, properties.getPruneInterval(),
+                properties.getPruneInterval()));
+    }
+
+    @Override
+    public void publish(ChangeType type, Long id, Long itemId, Long itemOwnerId) {
+        ChangeDto change = new ChangeDto(0, type, id, itemId, itemOwnerId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(Map.of(type, Map.of(id, change)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<ChangeType, Map<Long, ChangeDto>> pending = (Map<ChangeType, Map<Long, ChangeDto>>)
+                TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<ChangeType, Map<Long, ChangeDto>> transactionChanges = new EnumMap<>(ChangeType.class);
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedServiceManager.this);
+                }
+            });
+            pending = transactionChanges;
+        }
+        pending.computeIfAbsent(type, t -> new LinkedHashMap<>()).put(id, change);
+    }
+
+    @Override
+    public ChangeFeedDto getChangesAfter(long after, int size) {
+        long[] bounds = jdbcTemplate.queryForObject("SELECT COALESCE(MIN(seq), 1), COALESCE(MAX(seq), 0) " +
+                "FROM change_feed", (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        long lastSeq = bounds[1];
+        if (after < bounds[0] - 1 || after > lastSeq) {
+            return ChangeFeedDto.builder().lastSeq(lastSeq).reset(true).changes(List.of()).build();
+        }
+        List<ChangeDto> page = jdbcTemplate.query("SELECT seq, type, entity_id, item_id, item_owner_id, " +
+                "created > LOCALTIMESTAMP - INTERVAL '" + GAP_TIMEOUT_SECONDS + "' SECOND AS young " +
+                "FROM change_feed " +
+                "WHERE seq > ? " +
+                "ORDER BY seq " +
+                "LIMIT ?", rs -> {
+            List<ChangeDto> changes = new ArrayList<>();
+            long expected = after + 1;
+            while (rs.next()) {
+                long seq = rs.getLong("seq");
+                if (seq != expected && rs.getBoolean("young")) {
+                    break;
+                }
+                changes.add(new ChangeDto(seq, ChangeType.valueOf(rs.getString("type")), rs.getLong("entity_id"),
+                        rs.getObject("item_id", Long.class), rs.getObject("item_owner_id", Long.class)));
+                expected = seq + 1;
+            }
+            return changes;
+        }, after, size);
+        return ChangeFeedDto.builder().lastSeq(lastSeq).changes(page).build();
+    }
+
+    // Последняя запись остается, чтобы позиции читателей не считались вытесненными.
+    public int prune() {
+        LocalDateTime now = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        int deleted = jdbcTemplate.update("DELETE FROM change_feed WHERE created < ? " +
+                "AND seq < (SELECT MAX(seq) FROM change_feed)", now.minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.debug("Из ленты изменений удалено {} записей.", deleted);
+        }
+        return deleted;
+    }
+
+    private void append(Map<ChangeType, Map<Long, ChangeDto>> committed) {
+        List<Object[]> rows = new ArrayList<>();
+        committed.values().forEach(typeChanges -> typeChanges.values().forEach(change -> rows.add(new Object[]{
+                change.getType().name(), change.getId(), change.getItemId(), change.getItemOwnerId()})));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate("INSERT INTO change_feed " +
+                    "(type, entity_id, item_id, item_owner_id) VALUES (?, ?, ?, ?)", rows));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось записать в ленту изменений {}: {}", committed.values(), e.getMessage());
+            return;
+        }
+        log.debug("В ленту изменений добавлены {}", committed.values());
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.comment.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.change.service.ChangeFeedListener;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,6 +12,7 @@ import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "comments")
+@EntityListeners(ChangeFeedListener.class)
 @Data
 @Builder
 @AllArgsConstructor
@@ -18,7 +20,8 @@ import java.time.ZonedDateTime;
 public class Comment {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
     @Column(name = "text", nullable = false)
     private String text;
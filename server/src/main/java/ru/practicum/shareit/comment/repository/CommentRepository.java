@@ -1,12 +1,21 @@
 package ru.practicum.shareit.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItem_Id(Long itemId);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "JOIN FETCH c.item " +
+            "WHERE c.item.id IN ?1 " +
+            "ORDER BY c.id")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
\ No newline at end of file
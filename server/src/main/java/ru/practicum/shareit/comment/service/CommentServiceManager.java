@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
@@ -26,14 +27,17 @@ public class CommentServiceManager implements CommentService {
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
 
     @Autowired
     public CommentServiceManager(ItemRepository itemRepository, UserRepository userRepository,
-                                 CommentRepository commentRepository, BookingRepository bookingRepository) {
+                                 CommentRepository commentRepository, BookingRepository bookingRepository,
+                                 BookingArchiveRepository bookingArchiveRepository) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
     }
 
     @Transactional
@@ -41,7 +45,8 @@ public class CommentServiceManager implements CommentService {
     public CommentResponseDto addComment(CommentDto commentDto, long itemId, long userId, LocalDateTime date) {
         LocalDateTime now = LocalDateTime.now();
 
-        if (bookingRepository.findAllByBookerIdAndItemIdAndEndBefore(userId, itemId, now).isEmpty()) {
+        if (bookingRepository.findAllByBookerIdAndItemIdAndEndBefore(userId, itemId, now).isEmpty()
+                && !bookingArchiveRepository.existsByBookerIdAndItemId(userId, itemId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Только пользователи, завершившие бронирование" +
                     " данной вещи, могут оставлять комментарии.");
         }
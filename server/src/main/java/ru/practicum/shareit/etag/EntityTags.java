@@ -0,0 +1,16 @@
+package ru.practicum.shareit.etag;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(String kind, long... parts) {
+        return Arrays.stream(parts)
+                .mapToObj(part -> Long.toString(part, Character.MAX_RADIX))
+                .collect(Collectors.joining("-", "\"" + kind, "\""));
+    }
+}
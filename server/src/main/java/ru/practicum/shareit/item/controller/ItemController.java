@@ -1,14 +1,33 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 
 @Slf4j
@@ -16,30 +35,83 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemImportService itemImportService, ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemResponseDto>> getItemsOfUser(@RequestHeader(value = USER_ID_HEADER) Long userId) {
-        return new ResponseEntity<>(itemService.getItemsOfUserById(userId), HttpStatus.OK);
+    public ResponseEntity<List<ItemResponseDto>> getItemsOfUser(
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = USER_ID_HEADER) Long userId) {
+        return new ResponseEntity<>(itemService.getItemsOfUserById(from, size, userId), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ItemResponseDto> getItem(@PathVariable Long id,
-                                                   @RequestHeader(value = USER_ID_HEADER) Long userId) {
+                                                   @RequestHeader(value = USER_ID_HEADER) Long userId,
+                                                   WebRequest request) {
+        if (request.checkNotModified(itemService.getItemETagById(id, userId))) {
+            return null;
+        }
         return new ResponseEntity<>(itemService.getItemById(id, userId), HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getItemAvailability(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestHeader(value = USER_ID_HEADER) Long userId,
+            WebRequest request) {
+        ItemAvailabilityDto availability = itemService.getItemAvailability(id, userId, from, to, granularity);
+        String tag = EntityTags.of("a", id, availability.getFrom().toEpochSecond(ZoneOffset.UTC),
+                availability.getTo().toEpochSecond(ZoneOffset.UTC), availability.getGranularity().ordinal(),
+                Arrays.hashCode(availability.getRuns()));
+        if (request.checkNotModified(tag)) {
+            return null;
+        }
+        return new ResponseEntity<>(availability, HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<ItemDto> createNewItem(@RequestBody ItemDto itemDto,
                                                  @RequestHeader(value = USER_ID_HEADER) Long userId) {
         return new ResponseEntity<>(itemService.createNewItem(itemDto, userId), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(InputStream body, @RequestHeader(value = USER_ID_HEADER) Long userId,
+                            HttpServletResponse response) throws IOException {
+        MappingIterator<ItemDto> rows;
+        try {
+            rows = objectMapper.readerFor(ItemDto.class).readValues(body);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректные данные импорта.");
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        itemImportService.importItems(rows, userId, result -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<?> updateItem(@PathVariable Long id, @RequestBody ItemDto itemDto,
                                         @RequestHeader(value = USER_ID_HEADER) Long userId) {
@@ -48,7 +120,10 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItems(@RequestParam(name = "text") String text,
+                                                     @RequestParam(defaultValue = "0") int from,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(defaultValue = "false") boolean fuzzy,
                                                      @RequestHeader(value = USER_ID_HEADER) Long userId) {
-        return new ResponseEntity<>(itemService.findItemsOfUser(text, userId), HttpStatus.OK);
+        return new ResponseEntity<>(itemService.findItemsOfUser(from, size, text, fuzzy, userId), HttpStatus.OK);
     }
 }
\ No newline at end of file
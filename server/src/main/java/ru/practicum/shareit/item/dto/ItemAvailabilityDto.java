@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.enums.SlotGranularity;
+
+import java.time.LocalDateTime;
+
+// runs — длины чередующихся свободных и занятых серий слотов, первая серия свободная.
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private SlotGranularity granularity;
+    private int[] runs;
+}
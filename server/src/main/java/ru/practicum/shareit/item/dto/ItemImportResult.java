@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    private int row;
+    private Long id;
+    private String error;
+
+    public static ItemImportResult imported(int row, Long id) {
+        return new ItemImportResult(row, id, null);
+    }
+
+    public static ItemImportResult failed(int row, String error) {
+        return new ItemImportResult(row, null, error);
+    }
+}
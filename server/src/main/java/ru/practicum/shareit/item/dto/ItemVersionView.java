@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemVersionView {
+    Long getOwnerId();
+
+    Long getVersion();
+
+    Long getComments();
+
+    Long getAuthorsVersion();
+
+    Long getBookings();
+
+    Long getBookingIds();
+
+    Long getLastBookingId();
+
+    Long getBookingsVersion();
+
+    LocalDateTime getNextStart();
+}
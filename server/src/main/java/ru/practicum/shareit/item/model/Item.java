@@ -2,10 +2,12 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.change.service.ChangeFeedListener;
 import ru.practicum.shareit.user.model.User;
 
 @Entity
 @Table(name = "items")
+@EntityListeners(ChangeFeedListener.class)
 @Data
 @Builder
 @Getter
@@ -14,7 +16,8 @@ import ru.practicum.shareit.user.model.User;
 @NoArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "name", length = 255, nullable = false)
@@ -28,4 +31,7 @@ public class Item {
     private User owner;
     @Column(name = "request_id")
     private Long requestId;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
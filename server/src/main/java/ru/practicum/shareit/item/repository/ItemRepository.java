@@ -1,22 +1,48 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId);
 
-    @Query("select it "
+    List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
+
+    @Query("select it.id as id, it.name as name, it.description as description, it.available as available "
+            + "from Item it "
+            + "where it.id > ?1 "
+            + "order by it.id")
+    List<ItemSearchView> findSearchViewsAfter(Long id, Pageable pageable);
+
+    @Query("select it.owner.id as ownerId, it.version as version, "
+            + "(select count(c) from Comment c where c.item.id = it.id) as comments, "
+            + "(select coalesce(sum(a.version), 0) from Comment c join c.author a where c.item.id = it.id) "
+            + "as authorsVersion, "
+            + "(select count(b) from Booking b where b.item.id = it.id and b.status = :status) as bookings, "
+            + "(select coalesce(sum(b.id), 0) from Booking b where b.item.id = it.id and b.status = :status) "
+            + "as bookingIds, "
+            + "(select coalesce(max(b.id), 0) from Booking b where b.item.id = it.id and b.status = :status) "
+            + "as lastBookingId, "
+            + "(select coalesce(sum(b.version), 0) from Booking b where b.item.id = it.id and b.status = :status) "
+            + "as bookingsVersion, "
+            + "(select min(b.start) from Booking b where b.item.id = it.id and b.status = :status "
+            + "and b.start > :now) as nextStart "
             + "from Item it "
-            + "where it.available = true "
-            + "and (lower (it.name) like concat('%', lower(?1), '%') "
-            + "or lower (it.description) like concat('%', lower(?1), '%')) ")
-    List<Item> findByText(String text);
+            + "where it.id = :id")
+    Optional<ItemVersionView> findVersionViewById(@Param("id") Long id, @Param("status") StatusType status,
+                                                  @Param("now") LocalDateTime now);
 
     void deleteItemByIdAndOwner_Id(long itemId, long userId);
 
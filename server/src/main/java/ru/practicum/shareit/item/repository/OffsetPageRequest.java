@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// Смещение, не кратное размеру страницы, передается в запрос как есть.
+@EqualsAndHashCode
+@ToString
+public class OffsetPageRequest implements Pageable {
+    private final long offset;
+    private final int size;
+
+    public OffsetPageRequest(long offset, int size) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Смещение не может быть отрицательным");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(offset - size, 0), size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private static final String SEARCH = "SELECT i.id FROM items i, to_tsquery('simple', :query) q "
+            + "WHERE i.available = true AND i.search_vector @@ q "
+            + "ORDER BY ts_rank(i.search_vector, q) DESC, i.id "
+            + "LIMIT :size OFFSET :from";
+    private static final String FUZZY_SEARCH = "SELECT i.id FROM items i "
+            + "WHERE i.available = true AND (:text <% i.name OR :text <% i.description) "
+            + "ORDER BY word_similarity(:text, i.name) * 2 + word_similarity(:text, i.description) DESC, i.id "
+            + "LIMIT :size OFFSET :from";
+
+    private final EntityManager entityManager;
+
+    public DatabaseItemSearchEngine(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> search(String text, int from, int size) {
+        List<String> terms = SearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String query = terms.stream().distinct().map(term -> term + ":*").collect(Collectors.joining(" & "));
+
+        return entityManager.createNativeQuery(SEARCH, Long.class)
+                .setParameter("query", query)
+                .setParameter("size", size)
+                .setParameter("from", from)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> fuzzySearch(String text, int from, int size) {
+        List<String> terms = SearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.createNativeQuery(FUZZY_SEARCH, Long.class)
+                .setParameter("text", String.join(" ", terms))
+                .setParameter("size", size)
+                .setParameter("from", from)
+                .getResultList();
+    }
+}
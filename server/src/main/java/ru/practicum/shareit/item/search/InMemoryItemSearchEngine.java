@@ -0,0 +1,353 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Изменения внутри транзакции применяются к индексу после ее фиксации.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    static final int NAME_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final double SIMILARITY_THRESHOLD = 0.6;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, TermPostings> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<Long, Integer> docsByItem = new HashMap<>();
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] itemIds = new long[INITIAL_CAPACITY];
+    private String[][] termsByDoc = new String[INITIAL_CAPACITY][];
+    private int docCount;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByTrigram.clear();
+            docsByItem.clear();
+            available.clear();
+            itemIds = new long[INITIAL_CAPACITY];
+            termsByDoc = new String[INITIAL_CAPACITY][];
+            docCount = 0;
+            long lastId = 0;
+            List<ItemSearchView> chunk;
+            do {
+                chunk = itemRepository.findSearchViewsAfter(lastId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                for (ItemSearchView view : chunk) {
+                    put(view.getId(), weigh(view.getName(), view.getDescription()), view.getAvailable());
+                    lastId = view.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            log.info("Поисковый индекс построен: {} вещей, {} слов.", docsByItem.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        List<String> terms = SearchTokenizer.tokenize(text).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        long[] ids;
+        double[] scores;
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) available.clone();
+            List<Collection<TermPostings>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Collection<TermPostings> termPostings = postings.subMap(term, true, term + Character.MAX_VALUE,
+                        false).values();
+                BitSet termDocs = new BitSet(docCount);
+                termPostings.forEach(list -> list.collect(termDocs));
+                candidates.and(termDocs);
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(termPostings);
+            }
+            int[] docs = candidates.stream().toArray();
+            scores = new double[docs.length];
+            matches.forEach(termPostings -> termPostings.forEach(list -> list.addWeights(docs, scores)));
+            ids = toItemIds(docs);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return top(ids, scores, from, size);
+    }
+
+    @Override
+    public List<Long> fuzzySearch(String text, int from, int size) {
+        List<String> words = SearchTokenizer.tokenize(text).stream().distinct().toList();
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        long[] ids;
+        double[] scores;
+        lock.readLock().lock();
+        try {
+            BitSet candidates = new BitSet(docCount);
+            List<Map<String, Double>> matches = new ArrayList<>(words.size());
+            for (String word : words) {
+                Map<String, Double> similarTerms = similarTerms(word);
+                similarTerms.keySet().forEach(term -> postings.get(term).collect(candidates));
+                matches.add(similarTerms);
+            }
+            candidates.and(available);
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+            int[] docs = candidates.stream().toArray();
+            scores = new double[docs.length];
+            double[] wordScores = new double[docs.length];
+            for (Map<String, Double> similarTerms : matches) {
+                Arrays.fill(wordScores, 0);
+                similarTerms.forEach((term, similarity) -> postings.get(term).maxWeights(docs, wordScores,
+                        similarity));
+                for (int i = 0; i < docs.length; i++) {
+                    scores[i] += wordScores[i];
+                }
+            }
+            ids = toItemIds(docs);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return top(ids, scores, from, size);
+    }
+
+    @Override
+    public void index(Item item) {
+        Long itemId = item.getId();
+        Map<String, Integer> weights = weigh(item.getName(), item.getDescription());
+        Boolean itemAvailable = item.getAvailable();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                put(itemId, weights, itemAvailable);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void put(Long itemId, Map<String, Integer> weights, Boolean itemAvailable) {
+        Integer doc = docsByItem.get(itemId);
+        if (doc == null) {
+            doc = docCount++;
+            if (doc == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, doc * 2);
+                termsByDoc = Arrays.copyOf(termsByDoc, doc * 2);
+            }
+            itemIds[doc] = itemId;
+            docsByItem.put(itemId, doc);
+        } else {
+            unpost(doc);
+        }
+        int document = doc;
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, this::newTerm).put(document, weight));
+        termsByDoc[doc] = weights.keySet().toArray(String[]::new);
+        available.set(doc, Boolean.TRUE.equals(itemAvailable));
+    }
+
+    private void delete(Long itemId) {
+        Integer doc = docsByItem.remove(itemId);
+        if (doc != null) {
+            unpost(doc);
+            termsByDoc[doc] = null;
+            available.clear(doc);
+        }
+    }
+
+    private void unpost(int doc) {
+        for (String term : termsByDoc[doc]) {
+            TermPostings termPostings = postings.get(term);
+            termPostings.remove(doc);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : SearchTokenizer.trigrams(term)) {
+                    Set<String> terms = termsByTrigram.get(trigram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private TermPostings newTerm(String term) {
+        SearchTokenizer.trigrams(term).forEach(trigram -> termsByTrigram.computeIfAbsent(trigram,
+                t -> new HashSet<>()).add(term));
+        return new TermPostings();
+    }
+
+    // Кандидаты берутся только из списков самых редких триграмм, частые лишь проверяются.
+    private Map<String, Double> similarTerms(String word) {
+        List<Set<String>> trigramTerms = SearchTokenizer.trigrams(word).stream()
+                .map(trigram -> termsByTrigram.getOrDefault(trigram, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .toList();
+        int required = (int) Math.ceil(SIMILARITY_THRESHOLD * trigramTerms.size() - 1e-9);
+        Map<String, Double> similarTerms = new HashMap<>();
+        Set<String> checked = new HashSet<>();
+        for (Set<String> candidates : trigramTerms.subList(0, trigramTerms.size() - required + 1)) {
+            for (String term : candidates) {
+                if (!checked.add(term)) {
+                    continue;
+                }
+                int shared = 0;
+                for (Set<String> terms : trigramTerms) {
+                    if (terms.contains(term)) {
+                        shared++;
+                    }
+                }
+                if (shared >= required) {
+                    similarTerms.put(term, (double) shared / trigramTerms.size());
+                }
+            }
+        }
+        return similarTerms;
+    }
+
+    private long[] toItemIds(int[] docs) {
+        long[] ids = new long[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            ids[i] = itemIds[docs[i]];
+        }
+        return ids;
+    }
+
+    private static List<Long> top(long[] ids, double[] scores, int from, int size) {
+        int limit = (int) Math.min(ids.length, (long) from + size);
+        if (from >= limit) {
+            return List.of();
+        }
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (heapSize < limit) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, ids, scores);
+            } else if (ranksAfter(heap[0], i, ids, scores)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, ids, scores);
+            }
+        }
+        long[] ranked = new long[heapSize];
+        for (int k = heapSize - 1; k >= 0; k--) {
+            ranked[k] = ids[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, ids, scores);
+        }
+        List<Long> page = new ArrayList<>(limit - from);
+        for (int k = from; k < limit; k++) {
+            page.add(ranked[k]);
+        }
+        return page;
+    }
+
+    private static boolean ranksAfter(int a, int b, long[] ids, double[] scores) {
+        return scores[a] < scores[b] || scores[a] == scores[b] && ids[a] > ids[b];
+    }
+
+    private static void siftUp(int[] heap, int child, long[] ids, double[] scores) {
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (!ranksAfter(heap[child], heap[parent], ids, scores)) {
+                return;
+            }
+            swap(heap, child, parent);
+            child = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int heapSize, long[] ids, double[] scores) {
+        int parent = 0;
+        while (2 * parent + 1 < heapSize) {
+            int child = 2 * parent + 1;
+            if (child + 1 < heapSize && ranksAfter(heap[child + 1], heap[child], ids, scores)) {
+                child++;
+            }
+            if (!ranksAfter(heap[child], heap[parent], ids, scores)) {
+                return;
+            }
+            swap(heap, child, parent);
+            parent = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private static Map<String, Integer> weigh(String name, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        SearchTokenizer.tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        SearchTokenizer.tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return weights;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Long> search(String text, int from, int size);
+
+    List<Long> fuzzySearch(String text, int from, int size);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Long itemId) {
+    }
+}
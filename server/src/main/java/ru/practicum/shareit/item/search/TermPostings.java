@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+final class TermPostings {
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int BINARY_SEARCH_RATIO = 16;
+
+    private int[] docs = new int[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int size;
+
+    void put(int doc, int weight) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index >= 0) {
+            weights[index] = weight;
+            return;
+        }
+        index = -index - 1;
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        System.arraycopy(docs, index, docs, index + 1, size - index);
+        System.arraycopy(weights, index, weights, index + 1, size - index);
+        docs[index] = doc;
+        weights[index] = weight;
+        size++;
+    }
+
+    void remove(int doc) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+        System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void collect(BitSet target) {
+        for (int i = 0; i < size; i++) {
+            target.set(docs[i]);
+        }
+    }
+
+    void addWeights(int[] candidates, double[] scores) {
+        forEachCandidate(candidates, (candidate, weight) -> scores[candidate] += weight);
+    }
+
+    void maxWeights(int[] candidates, double[] scores, double factor) {
+        forEachCandidate(candidates, (candidate, weight) -> scores[candidate] = Math.max(scores[candidate],
+                weight * factor));
+    }
+
+    private void forEachCandidate(int[] candidates, CandidateConsumer consumer) {
+        if ((long) size * BINARY_SEARCH_RATIO < candidates.length) {
+            int j = 0;
+            for (int i = 0; i < size && j < candidates.length; i++) {
+                j = Arrays.binarySearch(candidates, j, candidates.length, docs[i]);
+                if (j >= 0) {
+                    consumer.accept(j++, weights[i]);
+                } else {
+                    j = -j - 1;
+                }
+            }
+            return;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < size && j < candidates.length) {
+            if (docs[i] < candidates[j]) {
+                i++;
+            } else if (docs[i] > candidates[j]) {
+                j++;
+            } else {
+                consumer.accept(j++, weights[i++]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CandidateConsumer {
+        void accept(int candidate, int weight);
+    }
+}
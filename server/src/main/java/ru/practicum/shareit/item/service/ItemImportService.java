@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface ItemImportService {
+
+    void importItems(Iterator<ItemDto> rows, Long userOwnerId, Consumer<ItemImportResult> report);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class ItemImportServiceManager implements ItemImportService {
+    static final int CHUNK_SIZE = 50;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemSearchEngine itemSearchEngine;
+
+    @Autowired
+    public ItemImportServiceManager(ItemRepository itemRepository, UserRepository userRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ItemSearchEngine itemSearchEngine) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemSearchEngine = itemSearchEngine;
+    }
+
+    @Override
+    public void importItems(Iterator<ItemDto> rows, Long userOwnerId, Consumer<ItemImportResult> report) {
+        User owner = userRepository.findById(userOwnerId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден."));
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        int row = 0;
+        int imported = 0;
+
+        while (true) {
+            ItemDto itemDto;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                itemDto = rows.next();
+            } catch (RuntimeException e) {
+                imported += saveChunk(chunk, chunkRows, report);
+                report.accept(ItemImportResult.failed(row + 1, "Некорректные данные: "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                break;
+            }
+            row++;
+            if (itemDto == null) {
+                report.accept(ItemImportResult.failed(row, "Пустая строка."));
+                continue;
+            }
+            try {
+                ItemServiceManager.validateNewItem(itemDto);
+            } catch (ResponseStatusException e) {
+                report.accept(ItemImportResult.failed(row, e.getReason()));
+                continue;
+            }
+            Item item = ItemMapper.itemDtoToItem(itemDto);
+            item.setId(null);
+            item.setOwner(owner);
+            chunk.add(item);
+            chunkRows.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                imported += saveChunk(chunk, chunkRows, report);
+            }
+        }
+        imported += saveChunk(chunk, chunkRows, report);
+        log.info("Импортировано {} из {} вещей пользователя с id {}.", imported, row, userOwnerId);
+    }
+
+    private int saveChunk(List<Item> chunk, List<Integer> chunkRows, Consumer<ItemImportResult> report) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int saved = 0;
+        try {
+            transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(chunk));
+            chunk.forEach(itemSearchEngine::index);
+            for (int i = 0; i < chunk.size(); i++) {
+                report.accept(ItemImportResult.imported(chunkRows.get(i), chunk.get(i).getId()));
+            }
+            saved = chunk.size();
+        } catch (DataAccessException e) {
+            String error = "Ошибка сохранения: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunkRows.forEach(row -> report.accept(ItemImportResult.failed(row, error)));
+        }
+        chunk.clear();
+        chunkRows.clear();
+        return saved;
+    }
+}
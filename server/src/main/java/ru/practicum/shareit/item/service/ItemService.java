@@ -1,21 +1,28 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
-    List<ItemResponseDto> getItemsOfUserById(Long userId);
+    List<ItemResponseDto> getItemsOfUserById(int from, int size, Long userId);
 
     ItemResponseDto getItemById(Long id, Long userId);
 
+    String getItemETagById(Long id, Long userId);
+
+    ItemAvailabilityDto getItemAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to,
+                                            String granularity);
+
     ItemDto createNewItem(ItemDto itemDto, Long userOwnerId);
 
     ItemDto updateItemOfUserById(Long id, ItemDto itemDto, Long userOwnerId);
 
     void deleteItemOfUserById(Long id, Long userOwnerId);
 
-    List<ItemDto> findItemsOfUser(String text, Long userId);
+    List<ItemDto> findItemsOfUser(int from, int size, String text, boolean fuzzy, Long userId);
 }
\ No newline at end of file
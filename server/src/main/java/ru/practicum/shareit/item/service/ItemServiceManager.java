@@ -6,22 +6,37 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.AvailabilityCalendar;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.SlotGranularity;
 import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OffsetPageRequest;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,32 +47,27 @@ public class ItemServiceManager implements ItemService {
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Autowired
     public ItemServiceManager(ItemRepository itemRepository, UserRepository userRepository,
-                              CommentRepository commentRepository, BookingRepository bookingRepository) {
+                              CommentRepository commentRepository, BookingRepository bookingRepository,
+                              ItemSearchEngine itemSearchEngine) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
+        this.itemSearchEngine = itemSearchEngine;
     }
 
     @Override
-    public List<ItemResponseDto> getItemsOfUserById(Long userId) {
+    public List<ItemResponseDto> getItemsOfUserById(int from, int size, Long userId) {
+        checkPage(from, size);
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь с данным id не найден"));
-        List<ItemResponseDto> itemResponseDto = itemRepository.findAllByOwnerIdOrderByIdAsc(userId).stream()
-                .map(item -> {
-                    List<Comment> comments = commentRepository.findAllByItem_Id(item.getId());
-                    Booking lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                            item.getId(), LocalDateTime.now(), StatusType.APPROVED);
-                    Booking nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            item.getId(), LocalDateTime.now(), StatusType.APPROVED);
-                    return ItemResponseDto.create(lastBooking, nextBooking, item, comments);
-                })
-                .collect(Collectors.toList());
+        List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, new OffsetPageRequest(from, size));
         log.info("Получаем все вещи пользователя с id {}.", userId);
 
-        return itemResponseDto;
+        return assembleResponses(items);
     }
 
     @Override
@@ -83,25 +93,55 @@ public class ItemServiceManager implements ItemService {
         return itemResponseDto;
     }
 
+    @Override
+    public String getItemETagById(Long id, Long userId) {
+        ItemVersionView view = itemRepository.findVersionViewById(id, StatusType.APPROVED, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена."));
+        if (!view.getOwnerId().equals(userId)) {
+            return EntityTags.of("i", id, view.getVersion(), view.getComments(), view.getAuthorsVersion());
+        }
+        long nextStart = view.getNextStart() != null ? view.getNextStart().toEpochSecond(ZoneOffset.UTC) : 0;
+        return EntityTags.of("io", id, view.getVersion(), view.getComments(), view.getAuthorsVersion(),
+                view.getBookings(), view.getBookingIds(), view.getLastBookingId(), view.getBookingsVersion(),
+                nextStart);
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to,
+                                                   String granularity) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+        if (!itemRepository.existsById(id)) {
+            throw new NotFoundException("Вещь не найдена.");
+        }
+        SlotGranularity slotGranularity = SlotGranularity.from(granularity);
+        LocalDateTime start = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime end = to != null ? to : start.plus(slotGranularity.getDefaultRange());
+        AvailabilityCalendar calendar = new AvailabilityCalendar(start, end, slotGranularity.getStep());
+        calendar.addAll(bookingRepository.findIntervalsBetween(id, start, end,
+                List.of(StatusType.WAITING, StatusType.APPROVED)));
+        log.info("Получен календарь занятости вещи с id {} на {} слотов.", id, calendar.getSlots());
+
+        return ItemAvailabilityDto.builder()
+                .itemId(id)
+                .from(start)
+                .to(end)
+                .granularity(slotGranularity)
+                .runs(calendar.runs())
+                .build();
+    }
+
     @Transactional
     @Override
     public ItemDto createNewItem(ItemDto itemDto, Long userId) {
         log.info("Создание новой вещи");
-        if (itemDto.getAvailable() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Вещь не доступна для заказа.");
-        }
-        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Имя не заполненно.");
-        }
-        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нет описания.");
-        }
+        validateNewItem(itemDto);
         Item item = ItemMapper.itemDtoToItem(itemDto);
         item.setOwner(userRepository.findById(userId).orElseThrow(() -> {
             log.info("Пользователь не найден");
             return new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден.");
         }));
         itemRepository.save(item);
+        itemSearchEngine.index(item);
         log.info("Создана вещь c id {} ", item.getId());
 
         return ItemMapper.itemToItemDto(item);
@@ -126,6 +166,7 @@ public class ItemServiceManager implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(item);
+        itemSearchEngine.index(item);
         log.info("Обновили вещь с id {} .", itemId);
 
         return ItemMapper.itemToItemDto(item);
@@ -146,20 +187,80 @@ public class ItemServiceManager implements ItemService {
         if (itemRepository.existsById(itemId)) {
             log.info("Пользователь с id {} удалён владельцем c id {}.", itemId, userOwnerId);
             itemRepository.deleteItemByIdAndOwner_Id(itemId, userOwnerId);
+            itemSearchEngine.remove(itemId);
         }
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> findItemsOfUser(String text, Long userId) {
+    public List<ItemDto> findItemsOfUser(int from, int size, String text, boolean fuzzy, Long userId) {
+        checkPage(from, size);
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
 
         if (text == null || text.isBlank()) {
             log.info("Получен пустой лист поиска по запросу пользователя id {}.", userId);
             return List.of();
         }
-        List<Item> items = itemRepository.findByText(text);
+        List<Long> itemIds = fuzzy
+                ? itemSearchEngine.fuzzySearch(text, from, size)
+                : itemSearchEngine.search(text, from, size);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
         log.info("Получены все вещи  по текстовому запросу '{} 'для пользователя с id {}.", text, userId);
-        return ItemMapper.itemsToItemsDto(items);
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapper::itemToItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private static void checkPage(int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Параметр from не может быть отрицательным, а size должен быть больше нуля");
+        }
+    }
+
+    private List<ItemResponseDto> assembleResponses(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        Map<Long, ItemBookingView> lastBookings = new HashMap<>();
+        Map<Long, ItemBookingView> nextBookings = new HashMap<>();
+        for (ItemBookingView view : bookingRepository.findLastAndNextBookings(itemIds, LocalDateTime.now(),
+                StatusType.APPROVED.name())) {
+            if (Boolean.TRUE.equals(view.getLast())) {
+                lastBookings.put(view.getItemId(), view);
+            } else {
+                nextBookings.put(view.getItemId(), view);
+            }
+        }
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return items.stream()
+                .map(item -> {
+                    ItemResponseDto itemResponseDto = ItemMapper.toResponseItem(item);
+                    itemResponseDto.setLastBooking(BookingMapper.viewToShort(lastBookings.get(item.getId())));
+                    itemResponseDto.setNextBooking(BookingMapper.viewToShort(nextBookings.get(item.getId())));
+                    itemResponseDto.setComments(CommentMapper.commentsToCommentsResponses(
+                            comments.getOrDefault(item.getId(), List.of())));
+                    return itemResponseDto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    static void validateNewItem(ItemDto itemDto) {
+        if (itemDto.getAvailable() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Вещь не доступна для заказа.");
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Имя не заполненно.");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нет описания.");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Последовательности начинаются после текущего максимального id и заменяют identity столбцов id.
+public class IdSequencesMigration implements JavaMigration {
+    public static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("3");
+    }
+
+    @Override
+    public String getDescription() {
+        return "create id sequences";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long start;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    resultSet.next();
+                    start = resultSet.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE IF NOT EXISTS " + table + "_seq START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + table
+                        + "_seq')");
+            }
+        }
+    }
+}
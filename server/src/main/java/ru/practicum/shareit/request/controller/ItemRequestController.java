@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -43,7 +44,11 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestResponseDto> getById(@PathVariable long requestId,
-                                                          @RequestHeader(value = USER_ID_HEADER) Long userId) {
+                                                          @RequestHeader(value = USER_ID_HEADER) Long userId,
+                                                          WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getETagById(requestId, userId))) {
+            return null;
+        }
         return new ResponseEntity<>(itemRequestService.getById(requestId, userId), HttpStatus.OK);
     }
 }
\ No newline at end of file
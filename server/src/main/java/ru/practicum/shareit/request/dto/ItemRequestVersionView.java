@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dto;
+
+public interface ItemRequestVersionView {
+    Long getVersion();
+
+    Long getItems();
+
+    Long getItemIds();
+
+    Long getLastItemId();
+
+    Long getItemsVersion();
+}
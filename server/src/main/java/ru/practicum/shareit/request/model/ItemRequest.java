@@ -2,12 +2,14 @@ package ru.practicum.shareit.request.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.change.service.ChangeFeedListener;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "requests")
+@EntityListeners(ChangeFeedListener.class)
 @Builder
 @Getter
 @Setter
@@ -16,7 +18,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     @Column
     private Long id;
     @Column
@@ -26,4 +29,7 @@ public class ItemRequest {
     private User requestor;
     @Column
     private LocalDateTime created;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
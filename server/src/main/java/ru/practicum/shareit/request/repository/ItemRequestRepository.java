@@ -3,14 +3,26 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestor_idOrderByCreatedAsc(Long userId);
 
     Page<ItemRequest> findAllByRequestor_IdNotIn(Collection<Long> ownerId, Pageable pageable);
+
+    @Query("select r.version as version, "
+            + "(select count(it) from Item it where it.requestId = r.id) as items, "
+            + "(select coalesce(sum(it.id), 0) from Item it where it.requestId = r.id) as itemIds, "
+            + "(select coalesce(max(it.id), 0) from Item it where it.requestId = r.id) as lastItemId, "
+            + "(select coalesce(sum(it.version), 0) from Item it where it.requestId = r.id) as itemsVersion "
+            + "from ItemRequest r "
+            + "where r.id = ?1")
+    Optional<ItemRequestVersionView> findVersionViewById(Long id);
 }
\ No newline at end of file
@@ -14,4 +14,6 @@ public interface ItemRequestService {
     List<ItemRequestResponseDto> getAllRequests(int from, int size, long userId);
 
     ItemRequestResponseDto getById(Long requestId, Long userId);
+
+    String getETagById(Long requestId, Long userId);
 }
\ No newline at end of file
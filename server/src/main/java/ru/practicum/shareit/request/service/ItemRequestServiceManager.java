@@ -7,12 +7,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -100,4 +102,18 @@ public class ItemRequestServiceManager implements ItemRequestService {
         log.info("Получен ItemRequest с id {} по запросу от пользователя c id {}.", requestId, userId);
         return ItemRequestResponseDto.create(itemRequest, items);
     }
+
+    @Override
+    public String getETagById(Long requestId, Long userId) {
+        if (!userRepository.existsById(userId)) {
+            log.info("Нет такого пользователя.");
+            throw new NotFoundException("Нет такого пользователя.");
+        }
+        ItemRequestVersionView view = itemRequestRepository.findVersionViewById(requestId).orElseThrow(() -> {
+            log.info("Нет такого пользователя.");
+            return new NotFoundException("Нет такого пользователя.");
+        });
+        return EntityTags.of("r", requestId, view.getVersion(), view.getItems(), view.getItemIds(),
+                view.getLastItemId(), view.getItemsVersion());
+    }
 }
\ No newline at end of file
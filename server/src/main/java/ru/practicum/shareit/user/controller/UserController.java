@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -28,8 +29,10 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
-
+    public ResponseEntity<UserDto> getUser(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(userService.getUserETagById(id))) {
+            return null;
+        }
         return new ResponseEntity<>(userService.getUserById(id), HttpStatus.OK);
     }
 
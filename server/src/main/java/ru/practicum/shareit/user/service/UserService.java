@@ -9,6 +9,8 @@ public interface UserService {
 
     UserDto getUserById(Long id);
 
+    String getUserETagById(Long id);
+
     UserDto createNewUser(UserDto userDto);
 
     UserDto updateUserById(Long id, UserDto userDto);
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -49,15 +50,23 @@ public class UserServiceManager implements UserService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден."));
     }
 
+    @Override
+    public String getUserETagById(Long id) {
+        return userRepository.findVersionById(id)
+                .map(version -> EntityTags.of("u", id, version))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден."));
+    }
+
     @Transactional
     @Override
     public UserDto createNewUser(UserDto userDto) {
         validateUser(userDto);
-        userDto.setId(getNextId());
+        User user = UserMapper.userDtoToUser(userDto);
+        user.setId(null);
 
         try {
-            log.info("Создание пользователя с id {}.", userDto);
-            return UserMapper.userToUserDto(userRepository.save(UserMapper.userDtoToUser(userDto)));
+            log.info("Создание пользователя {}.", userDto);
+            return UserMapper.userToUserDto(userRepository.saveAndFlush(user));
         } catch (DataIntegrityViolationException e) {
             throw new ConditionsNotMetException("Такой email уже есть.");
         }
@@ -72,7 +81,8 @@ public class UserServiceManager implements UserService {
         }
 
         try {
-            User user = UserMapper.userDtoToUser(getUserById(id));
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден."));
             if (newUser.getName() != null && !newUser.getName().isBlank()) {
                 user.setName(newUser.getName());
             }
@@ -97,15 +107,6 @@ public class UserServiceManager implements UserService {
         log.info("Удаление пользователя с id {}.", id);
     }
 
-    private Long getNextId() {
-        Long currentMaxId = (long) Math.toIntExact(userRepository.findAll().stream()
-                .mapToLong(User::getId)
-                .max()
-                .orElse(0));
-
-        return ++currentMaxId;
-    }
-
     private static void validateUser(UserDto user) {
         if (user.getEmail() == null || user.getEmail().isBlank() || !user.getEmail().contains("@")) {
             throw new ConditionsNotMetException("Email не может быть пустым и должна содержать символ @");
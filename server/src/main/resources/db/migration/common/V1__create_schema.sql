@@ -1,9 +1,3 @@
-drop table IF EXISTS users cascade;
-drop table IF EXISTS items cascade;
-drop table IF EXISTS bookings cascade;
-drop table IF EXISTS requests cascade;
-drop table IF EXISTS comments cascade;
-
 create TABLE IF NOT EXISTS users
 (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -0,0 +1,7 @@
+create INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+create INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+create INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+create INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+create INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
@@ -0,0 +1,10 @@
+create TABLE IF NOT EXISTS change_feed (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type varchar(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    item_id BIGINT,
+    item_owner_id BIGINT,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+create INDEX IF NOT EXISTS change_feed_created_idx ON change_feed (created);
@@ -0,0 +1,3 @@
+alter TABLE bookings ADD COLUMN IF NOT EXISTS created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP;
+create INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, start_date);
+create INDEX IF NOT EXISTS bookings_status_created_idx ON bookings (status, created);
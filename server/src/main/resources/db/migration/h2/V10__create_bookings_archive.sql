@@ -0,0 +1,12 @@
+create TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status varchar(16) NOT NULL,
+    PRIMARY KEY (id, end_date)
+);
+
+create INDEX IF NOT EXISTS bookings_archive_booker_end_idx ON bookings_archive (booker_id, end_date DESC);
+create INDEX IF NOT EXISTS bookings_archive_item_end_idx ON bookings_archive (item_id, end_date DESC);
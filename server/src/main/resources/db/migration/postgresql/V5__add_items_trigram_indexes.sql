@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+create INDEX IF NOT EXISTS items_name_trgm_idx ON items USING GIN (name gin_trgm_ops);
+create INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN (description gin_trgm_ops);
@@ -0,0 +1,53 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Бронирования, отмененные при разборе пересечений, накопившихся до ограничения.
+create TABLE IF NOT EXISTS bookings_overlap_resolutions (
+    booking_id BIGINT PRIMARY KEY,
+    previous_status varchar(16) NOT NULL,
+    kept_booking_id BIGINT NOT NULL,
+    resolved TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Пересечения разбираются по вещам: сначала подтвержденные, затем ожидающие, внутри — по началу.
+-- Бронирование остается, если не пересекается с уже оставленными, иначе отменяется и записывается.
+DO $$
+DECLARE
+    b RECORD;
+    kept BIGINT;
+BEGIN
+    FOR b IN SELECT c.id, c.item_id, c.start_date, c.end_date, c.status,
+                    CASE c.status WHEN 'APPROVED' THEN 0 ELSE 1 END AS priority
+             FROM bookings c
+             WHERE c.status IN ('WAITING', 'APPROVED')
+               AND EXISTS (SELECT 1 FROM bookings o
+                           WHERE o.item_id = c.item_id
+                             AND o.id <> c.id
+                             AND o.status IN ('WAITING', 'APPROVED')
+                             AND o.start_date < c.end_date
+                             AND c.start_date < o.end_date)
+             ORDER BY c.item_id, priority, c.start_date, c.id
+    LOOP
+        SELECT k.id INTO kept
+        FROM bookings k
+        WHERE k.item_id = b.item_id
+          AND k.status IN ('WAITING', 'APPROVED')
+          AND k.start_date < b.end_date
+          AND b.start_date < k.end_date
+          AND (CASE k.status WHEN 'APPROVED' THEN 0 ELSE 1 END, k.start_date, k.id)
+              < (b.priority, b.start_date, b.id)
+        ORDER BY k.start_date, k.id
+        LIMIT 1;
+
+        IF kept IS NOT NULL THEN
+            update bookings SET status = 'CANCELED', version = version + 1 WHERE id = b.id;
+            insert INTO bookings_overlap_resolutions (booking_id, previous_status, kept_booking_id)
+            VALUES (b.id, b.status, kept);
+            RAISE NOTICE 'Бронирование % (%) вещи % отменено: пересекается с бронированием %',
+                b.id, b.status, b.item_id, kept;
+        END IF;
+    END LOOP;
+END $$;
+
+alter TABLE bookings ADD CONSTRAINT bookings_item_period_excl
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -10,15 +10,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.ArchivedBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -30,6 +33,8 @@ import java.util.List;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,6 +47,8 @@ public class BookingControllerTest {
     final MockMvc mockMvc;
     @MockBean
     BookingService bookingService;
+    @MockBean
+    BookingArchiveService bookingArchiveService;
 
     private User mockUser1;
     private User mockUser2;
@@ -50,13 +57,13 @@ public class BookingControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockUser1 = new User(1L, "Петр", "petr@yandex.ru");
-        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru");
+        mockUser1 = new User(1L, "Петр", "petr@yandex.ru", null);
+        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru", null);
         mockItem1 = new Item(1L, "Телефон", "Описание телефона", true, mockUser1,
-                1L);
+                1L, null);
         mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1),
                 LocalDateTime.of(2021, 12, 22, 1, 1),
-                mockItem1, mockUser2, StatusType.APPROVED);
+                mockItem1, mockUser2, StatusType.APPROVED, null);
     }
 
     @Test
@@ -146,6 +153,30 @@ public class BookingControllerTest {
         verify(bookingService).getById(booking.getId(), user.getId());
     }
 
+    @Test
+    @SneakyThrows
+    void testGetByIdAnswersNotModifiedBeforeMapping() {
+        Mockito
+                .when(bookingService.getETagById(1L, 2L))
+                .thenReturn("\"b1-3-1-1\"");
+        Mockito
+                .when(bookingService.getById(1L, 2L))
+                .thenReturn(BookingMapper.bookingToResponse(mockBooking1));
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"b1-3-1-1\""));
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"b1-2-1-1\", \"b1-3-1-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"b1-3-1-1\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(bookingService, Mockito.times(1)).getById(1L, 2L);
+    }
+
     @Test
     @SneakyThrows
     void testGetAllByBooker() {
@@ -187,4 +218,37 @@ public class BookingControllerTest {
 
         verify(bookingService).getAllByOwner(0, 10, "ALL", user.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void testGetArchivedBookings() {
+        ArchivedBookingDto archived = ArchivedBookingDto.builder()
+                .id(1L)
+                .itemId(mockItem1.getId())
+                .itemName(mockItem1.getName())
+                .bookerId(mockUser2.getId())
+                .start(mockBooking1.getStart())
+                .end(mockBooking1.getEnd())
+                .status(StatusType.APPROVED)
+                .build();
+        Mockito.when(bookingArchiveService.getArchivedByBooker(0, 10, mockUser2.getId()))
+                .thenReturn(List.of(archived));
+        Mockito.when(bookingArchiveService.getArchivedByOwner(5, 5, mockUser1.getId()))
+                .thenReturn(List.of(archived));
+
+        mockMvc.perform(get("/bookings/archive")
+                        .header("X-Sharer-User-Id", mockUser2.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].itemName").value(mockItem1.getName()))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"));
+        mockMvc.perform(get("/bookings/owner/archive")
+                        .param("from", "5")
+                        .param("size", "5")
+                        .header("X-Sharer-User-Id", mockUser1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookerId").value(mockUser2.getId()));
+
+        verify(bookingArchiveService).getArchivedByOwner(5, 5, mockUser1.getId());
+    }
+}
@@ -47,18 +47,18 @@ public class CommentControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockUser1 = new User(1L, "Петр", "petr@yandex.ru");
-        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru");
+        mockUser1 = new User(1L, "Петр", "petr@yandex.ru", null);
+        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru", null);
         mockItem1 = new Item(1L, "Телефон", "Описание телефона", true, mockUser1,
-                1L);
+                1L, null);
         mockItem2 = new Item(2L, "Копмьютер", "Описание компьютера", true, mockUser2,
-                2L);
+                2L, null);
         mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1),
                 LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
         mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1),
                 LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
     }
 
     @Test
@@ -11,27 +11,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.enums.SlotGranularity;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.Optional;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -47,6 +54,9 @@ public class ItemControllerTest {
     @MockBean
     ItemService itemService;
 
+    @MockBean
+    ItemImportService itemImportService;
+
     @MockBean
     private ItemRepository itemRepository;
 
@@ -62,18 +72,18 @@ public class ItemControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockUser1 = new User(1L, "Петр", "petr@yandex.ru");
-        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru");
+        mockUser1 = new User(1L, "Петр", "petr@yandex.ru", null);
+        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru", null);
         mockItem1 = new Item(1L, "Телефон", "Описание телефона", true, mockUser1,
-                1L);
+                1L, null);
         mockItem2 = new Item(2L, "Копмьютер", "Описание компьютера", true, mockUser2,
-                2L);
+                2L, null);
         mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1),
                 LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
         mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1),
                 LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
     }
 
     @Test
@@ -130,6 +140,22 @@ public class ItemControllerTest {
         Mockito.verify(itemService).getItemById(itemDto.getId(), 1L);
     }
 
+    @Test
+    @SneakyThrows
+    void getByIdNotModifiedSkipsMappingTest() {
+        Mockito
+                .when(itemService.getItemETagById(1L, 1L))
+                .thenReturn("\"io1-5-2-4-1-3-0\"");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"io1-5-2-4-1-3-0\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"io1-5-2-4-1-3-0\""));
+
+        Mockito.verify(itemService, Mockito.never()).getItemById(Mockito.any(), Mockito.any());
+    }
+
     @Test
     @SneakyThrows
     void itemUpdateTest() {
@@ -174,7 +200,21 @@ public class ItemControllerTest {
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk());
 
-        Mockito.verify(itemService).getItemsOfUserById(owner.getId());
+        Mockito.verify(itemService).getItemsOfUserById(from, size, owner.getId());
+    }
+
+    @Test
+    @SneakyThrows
+    void searchItemsPassesFuzzyFlagTest() {
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text={text}&fuzzy=true&from=4&size=2", "drll")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text={text}", "дрель")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Mockito.verify(itemService).findItemsOfUser(4, 2, "drll", true, 1L);
+        Mockito.verify(itemService).findItemsOfUser(0, 10, "дрель", false, 1L);
     }
 
     @Test
@@ -219,4 +259,76 @@ public class ItemControllerTest {
 
         Assertions.assertEquals("[]", result.getResponse().getContentAsString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void testImportItemsStreamsReportForArrayAndNdjson() {
+        Mockito.doAnswer(invocation -> {
+            Iterator<ItemDto> rows = invocation.getArgument(0);
+            Consumer<ItemImportResult> report = invocation.getArgument(2);
+            int row = 0;
+            while (rows.hasNext()) {
+                ItemDto itemDto = rows.next();
+                row++;
+                report.accept(itemDto.getName() == null ? ItemImportResult.failed(row, "Имя не заполненно.")
+                        : ItemImportResult.imported(row, (long) row));
+            }
+            return null;
+        }).when(itemImportService).importItems(Mockito.any(), Mockito.eq(mockUser1.getId()), Mockito.any());
+        String expected = "{\"row\":1,\"id\":1}\n{\"row\":2,\"error\":\"Имя не заполненно.\"}\n";
+
+        String array = mockMvc.perform(MockMvcRequestBuilders.post("/items/import")
+                        .header("X-Sharer-User-Id", mockUser1.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Дрель\",\"description\":\"Описание\",\"available\":true},"
+                                + "{\"description\":\"Без имени\",\"available\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String ndjson = mockMvc.perform(MockMvcRequestBuilders.post("/items/import")
+                        .header("X-Sharer-User-Id", mockUser1.getId())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Описание\",\"available\":true}\n"
+                                + "{\"description\":\"Без имени\",\"available\":true}\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(expected, array);
+        Assertions.assertEquals(expected, ndjson);
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(from.plusDays(5))
+                .granularity(SlotGranularity.DAY)
+                .runs(new int[]{2, 1, 2})
+                .build();
+        Mockito.when(itemService.getItemAvailability(1L, 2L, from, null, "DAY")).thenReturn(availability);
+
+        String tag = mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.granularity").value("DAY"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.runs.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.runs[1]").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .header("X-Sharer-User-Id", 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified());
+        availability.setRuns(new int[]{2, 2, 1});
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .header("X-Sharer-User-Id", 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+    }
+}
@@ -44,9 +44,9 @@ public class ItemRequestControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockUser1 = new User(1L, "Петр", "petr@yandex.ru");
-        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru");
-        mockItemRequest1 = new ItemRequest(1L, "Нужна книга", mockUser2, LocalDateTime.of(2021, 12, 12, 1, 1, 1));
+        mockUser1 = new User(1L, "Петр", "petr@yandex.ru", null);
+        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru", null);
+        mockItemRequest1 = new ItemRequest(1L, "Нужна книга", mockUser2, LocalDateTime.of(2021, 12, 12, 1, 1, 1), null);
     }
 
     @Test
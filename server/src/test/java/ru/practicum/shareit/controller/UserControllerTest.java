@@ -38,8 +38,8 @@ public class UserControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockUser1 = new User(1L, "Петр", "petr@yandex.ru");
-        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru");
+        mockUser1 = new User(1L, "Петр", "petr@yandex.ru", null);
+        mockUser2 = new User(2L, "Иван", "ivan@yandex.ru", null);
     }
 
     @Test
@@ -1,9 +1,150 @@
 package ru.practicum.shareit.repository;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @DataJpaTest
 @Transactional
 public class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void testSeekPagesMatchOffsetPages() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        User owner = em.persist(User.builder().name("Иван").email("owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("booker@yandex.ru").build());
+        Item item = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime bookingStart = start.plusDays(i / 2);
+            em.persist(Booking.builder().item(item).booker(booker).start(bookingStart).end(bookingStart.plusHours(1))
+                    .status(StatusType.APPROVED).build());
+        }
+        em.flush();
+
+        List<Booking> all = bookingRepository.findBookings(query(BookingRole.BOOKER, booker.getId())
+                .limit(10).build());
+        List<Booking> seekPages = new ArrayList<>();
+        BookingCursor cursor = null;
+        List<Booking> page;
+        do {
+            page = bookingRepository.findBookings(query(BookingRole.OWNER, owner.getId()).cursor(cursor)
+                    .limit(3).build());
+            seekPages.addAll(page);
+            if (!page.isEmpty()) {
+                Booking last = page.get(page.size() - 1);
+                cursor = new BookingCursor(last.getStart(), last.getId());
+            }
+        } while (page.size() == 3);
+
+        Assertions.assertEquals(7, all.size());
+        Assertions.assertEquals(all, seekPages);
+        Assertions.assertEquals(all.subList(3, 6), bookingRepository.findBookings(query(BookingRole.BOOKER,
+                booker.getId()).offset(3).limit(3).build()));
+    }
+
+    @Test
+    void testStatesAndFiltersShareOneQuery() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        User owner = em.persist(User.builder().name("Иван").email("filters-owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("filters-booker@yandex.ru").build());
+        Item drill = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        Item saw = em.persist(Item.builder().name("Пила").description("Описание пилы").available(true)
+                .owner(owner).build());
+        Booking past = em.persist(booking(drill, booker, now.minusDays(3), now.minusDays(2), StatusType.APPROVED));
+        Booking current = em.persist(booking(saw, booker, now.minusHours(1), now.plusHours(1), StatusType.APPROVED));
+        Booking future = em.persist(booking(drill, booker, now.plusDays(2), now.plusDays(3), StatusType.WAITING));
+        Booking rejected = em.persist(booking(saw, booker, now.plusDays(5), now.plusDays(6), StatusType.REJECTED));
+        em.flush();
+
+        Assertions.assertEquals(List.of(past), find(BookingRole.BOOKER, booker.getId(), BookingState.PAST, now));
+        Assertions.assertEquals(List.of(current), find(BookingRole.OWNER, owner.getId(), BookingState.CURRENT, now));
+        Assertions.assertEquals(List.of(rejected, future), find(BookingRole.OWNER, owner.getId(),
+                BookingState.FUTURE, now));
+        Assertions.assertEquals(List.of(future), find(BookingRole.BOOKER, booker.getId(), BookingState.WAITING, now));
+        Assertions.assertEquals(List.of(), find(BookingRole.OWNER, booker.getId(), BookingState.ALL, now));
+        Assertions.assertEquals(List.of(past, future), bookingRepository.findBookings(query(BookingRole.OWNER,
+                owner.getId()).itemId(drill.getId()).direction(Sort.Direction.ASC).limit(10).build()));
+        Assertions.assertEquals(List.of(current, future), bookingRepository.findBookings(query(BookingRole.BOOKER,
+                booker.getId()).rangeStart(now).rangeEnd(now.plusDays(4)).direction(Sort.Direction.ASC)
+                .limit(10).build()));
+    }
+
+    @Test
+    void testCursorRoundTrip() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15), 42L);
+
+        BookingCursor decoded = BookingCursor.decode(cursor.encode());
+
+        Assertions.assertEquals(cursor.getStart(), decoded.getStart());
+        Assertions.assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void testFindIntervalsReturnsActiveUnfinishedBookingsByStart() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        User owner = em.persist(User.builder().name("Иван").email("intervals-owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("intervals-booker@yandex.ru").build());
+        Item item = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        Item other = em.persist(Item.builder().name("Пила").description("Описание пилы").available(true)
+                .owner(owner).build());
+        Booking later = em.persist(booking(item, booker, now.plusDays(3), now.plusDays(4), StatusType.WAITING));
+        Booking current = em.persist(booking(item, booker, now.minusDays(1), now.plusDays(1), StatusType.APPROVED));
+        em.persist(booking(item, booker, now.minusDays(3), now.minusDays(2), StatusType.APPROVED));
+        em.persist(booking(item, booker, now.plusDays(5), now.plusDays(6), StatusType.REJECTED));
+        em.persist(booking(other, booker, now.plusDays(1), now.plusDays(2), StatusType.APPROVED));
+        em.flush();
+
+        List<BookingIntervalView> intervals = bookingRepository.findIntervals(item.getId(), now,
+                List.of(StatusType.WAITING, StatusType.APPROVED));
+
+        Assertions.assertEquals(List.of(current.getId(), later.getId()),
+                intervals.stream().map(BookingIntervalView::getId).toList());
+        Assertions.assertEquals(current.getStart(), intervals.get(0).getStart());
+        Assertions.assertEquals(current.getEnd(), intervals.get(0).getEnd());
+    }
+
+    private List<Booking> find(BookingRole role, Long userId, BookingState state, LocalDateTime now) {
+        return bookingRepository.findBookings(query(role, userId).state(state).now(now).limit(10).build());
+    }
+
+    private static BookingQuery.BookingQueryBuilder query(BookingRole role, Long userId) {
+        return BookingQuery.builder().role(role).userId(userId);
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                   StatusType status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.change.dto.ChangeDto;
+import ru.practicum.shareit.change.enums.ChangeType;
+import ru.practicum.shareit.change.config.ChangeFeedConfig;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+import ru.practicum.shareit.change.service.ChangeFeedServiceManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@Import({ChangeFeedConfig.class, ChangeFeedServiceManager.class})
+public class ChangeFeedListenerTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void testCommittedEntityChangesReachFeed() {
+        long lastSeq = changeFeedService.getChangesAfter(-1, 1).getLastSeq();
+        User owner = em.persist(User.builder().name("Иван").email("feed@yandex.ru").build());
+        Item item = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        User booker = em.persist(User.builder().name("Петр").email("feed-booker@yandex.ru").build());
+        Booking booking = em.persist(Booking.builder().item(item).booker(booker).start(LocalDateTime.now())
+                .end(LocalDateTime.now().plusDays(1)).status(StatusType.WAITING).build());
+        em.flush();
+        item.setAvailable(false);
+        em.flush();
+
+        Assertions.assertEquals(lastSeq, changeFeedService.getChangesAfter(lastSeq, 10).getLastSeq());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        List<ChangeDto> changes = changeFeedService.getChangesAfter(lastSeq, 10).getChanges();
+        Assertions.assertEquals(4, changes.size());
+        Assertions.assertTrue(changes.stream()
+                .anyMatch(c -> c.getType() == ChangeType.ITEM && item.getId().equals(c.getId())));
+        Assertions.assertTrue(changes.stream()
+                .anyMatch(c -> c.getType() == ChangeType.USER && owner.getId().equals(c.getId())));
+        ChangeDto bookingChange = changes.stream().filter(c -> c.getType() == ChangeType.BOOKING).findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(new ChangeDto(bookingChange.getSeq(), ChangeType.BOOKING, booking.getId(),
+                item.getId(), owner.getId()), bookingChange);
+
+        TestTransaction.start();
+        em.remove(em.find(Booking.class, booking.getId()));
+        em.remove(em.find(Item.class, item.getId()));
+        em.remove(em.find(User.class, owner.getId()));
+        em.remove(em.find(User.class, booker.getId()));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceManager;
+import ru.practicum.shareit.booking.service.ItemLocks;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemServiceManager;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestServiceManager;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceManager;
+
+import java.time.LocalDateTime;
+
+@DataJpaTest
+public class EntityTagTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testItemTagFollowsItemCommentsAndOwnerBookings() {
+        ItemServiceManager itemService = new ItemServiceManager(itemRepository, userRepository, commentRepository,
+                bookingRepository, new InMemoryItemSearchEngine(itemRepository));
+        LocalDateTime now = LocalDateTime.now();
+        User owner = em.persist(User.builder().name("Иван").email("tag-owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("tag-booker@yandex.ru").build());
+        Item item = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        em.flush();
+
+        String ownerTag = itemService.getItemETagById(item.getId(), owner.getId());
+        String guestTag = itemService.getItemETagById(item.getId(), booker.getId());
+        Assertions.assertNotEquals(ownerTag, guestTag);
+        Assertions.assertEquals(ownerTag, itemService.getItemETagById(item.getId(), owner.getId()));
+
+        Booking booking = em.persist(Booking.builder().item(item).booker(booker).start(now.plusDays(1))
+                .end(now.plusDays(2)).status(StatusType.WAITING).build());
+        em.flush();
+        Assertions.assertEquals(ownerTag, itemService.getItemETagById(item.getId(), owner.getId()));
+
+        booking.setStatus(StatusType.APPROVED);
+        em.flush();
+        Assertions.assertNotEquals(ownerTag, itemService.getItemETagById(item.getId(), owner.getId()));
+        Assertions.assertEquals(guestTag, itemService.getItemETagById(item.getId(), booker.getId()));
+
+        em.persist(Comment.builder().text("Отлично").item(item).author(booker).build());
+        em.flush();
+        String commentedTag = itemService.getItemETagById(item.getId(), booker.getId());
+        Assertions.assertNotEquals(guestTag, commentedTag);
+
+        booker.setName("Петр Петров");
+        em.flush();
+        String renamedAuthorTag = itemService.getItemETagById(item.getId(), booker.getId());
+        Assertions.assertNotEquals(commentedTag, renamedAuthorTag);
+
+        item.setAvailable(false);
+        em.flush();
+        Assertions.assertNotEquals(renamedAuthorTag, itemService.getItemETagById(item.getId(), booker.getId()));
+    }
+
+    @Test
+    void testItemTagTellsApartBookingSetsWithEqualIdSums() {
+        ItemServiceManager itemService = new ItemServiceManager(itemRepository, userRepository, commentRepository,
+                bookingRepository, new InMemoryItemSearchEngine(itemRepository));
+        LocalDateTime now = LocalDateTime.now();
+        User owner = em.persist(User.builder().name("Иван").email("sum-owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("sum-booker@yandex.ru").build());
+        Item item = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        Booking[] bookings = new Booking[4];
+        for (int i = 0; i < bookings.length; i++) {
+            bookings[i] = em.persist(Booking.builder().item(item).booker(booker).start(now.minusDays(10 - i))
+                    .end(now.minusDays(9 - i)).status(StatusType.WAITING).build());
+        }
+        bookings[0].setStatus(StatusType.APPROVED);
+        bookings[3].setStatus(StatusType.APPROVED);
+        em.flush();
+        Assertions.assertEquals(bookings[0].getId() + bookings[3].getId(),
+                bookings[1].getId() + bookings[2].getId());
+        String tag = itemService.getItemETagById(item.getId(), owner.getId());
+
+        bookings[0].setStatus(StatusType.REJECTED);
+        bookings[3].setStatus(StatusType.REJECTED);
+        bookings[1].setStatus(StatusType.APPROVED);
+        bookings[2].setStatus(StatusType.APPROVED);
+        em.flush();
+        Assertions.assertNotEquals(tag, itemService.getItemETagById(item.getId(), owner.getId()));
+    }
+
+    @Test
+    void testBookingUserAndRequestTagsFollowTheirResponses() {
+        BookingServiceManager bookingService = new BookingServiceManager(bookingRepository, itemRepository,
+                userRepository, new BookingAvailabilityIndex(bookingRepository, new BookingProperties()),
+                new ItemLocks(1), new TransactionTemplate(transactionManager), new BookingProperties());
+        UserServiceManager userService = new UserServiceManager(userRepository);
+        ItemRequestServiceManager itemRequestService = new ItemRequestServiceManager(itemRequestRepository,
+                itemRepository, userRepository);
+        LocalDateTime now = LocalDateTime.now();
+        User owner = em.persist(User.builder().name("Иван").email("owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("booker@yandex.ru").build());
+        User stranger = em.persist(User.builder().name("Анна").email("stranger@yandex.ru").build());
+        Item item = em.persist(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        Booking booking = em.persist(Booking.builder().item(item).booker(booker).start(now.plusDays(1))
+                .end(now.plusDays(2)).status(StatusType.WAITING).build());
+        ItemRequest request = em.persist(ItemRequest.builder().description("Нужна пила").requestor(booker)
+                .created(now).build());
+        em.flush();
+
+        String bookingTag = bookingService.getETagById(booking.getId(), booker.getId());
+        Assertions.assertEquals(bookingTag, bookingService.getETagById(booking.getId(), owner.getId()));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> bookingService.getETagById(booking.getId(), stranger.getId()));
+        bookingService.confirm(booking.getId(), owner.getId(), true);
+        em.flush();
+        Assertions.assertNotEquals(bookingTag, bookingService.getETagById(booking.getId(), booker.getId()));
+
+        String userTag = userService.getUserETagById(booker.getId());
+        userService.updateUserById(booker.getId(), UserDto.builder().name("Петр Петров").build());
+        Assertions.assertNotEquals(userTag, userService.getUserETagById(booker.getId()));
+
+        String requestTag = itemRequestService.getETagById(request.getId(), owner.getId());
+        em.persist(Item.builder().name("Пила").description("Описание пилы").available(true).owner(owner)
+                .requestId(request.getId()).build());
+        em.flush();
+        Assertions.assertNotEquals(requestTag, itemRequestService.getETagById(request.getId(), owner.getId()));
+    }
+}
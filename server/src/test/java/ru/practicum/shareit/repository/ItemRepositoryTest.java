@@ -1,14 +1,34 @@
 package ru.practicum.shareit.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OffsetPageRequest;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemServiceManager;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 public class ItemRepositoryTest {
 
@@ -37,4 +57,115 @@ public class ItemRepositoryTest {
             .owner(userOwner)
             .requestId(userRequestor.getId())
             .build();
-}
\ No newline at end of file
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void testFindLastAndNextBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = em.persist(User.builder().name("Иван").email("owner@yandex.ru").build());
+        User booker = em.persist(User.builder().name("Петр").email("booker@yandex.ru").build());
+        Item book = em.persist(Item.builder().name("Книга").description("Описание книги").available(true)
+                .owner(owner).build());
+        em.persist(booking(book, booker, now.minusDays(10), now.minusDays(8), StatusType.APPROVED));
+        Booking last = em.persist(booking(book, booker, now.minusDays(5), now.minusDays(3), StatusType.APPROVED));
+        em.persist(booking(book, booker, now.plusDays(1), now.plusDays(2), StatusType.WAITING));
+        Booking next = em.persist(booking(book, booker, now.plusDays(3), now.plusDays(4), StatusType.APPROVED));
+        em.persist(booking(book, booker, now.plusDays(6), now.plusDays(7), StatusType.APPROVED));
+        em.flush();
+
+        List<ItemBookingView> views = bookingRepository.findLastAndNextBookings(List.of(book.getId()), now,
+                StatusType.APPROVED.name());
+
+        Assertions.assertEquals(2, views.size());
+        ItemBookingView lastView = views.stream().filter(ItemBookingView::getLast).findFirst().orElseThrow();
+        ItemBookingView nextView = views.stream().filter(v -> !v.getLast()).findFirst().orElseThrow();
+        Assertions.assertEquals(last.getId(), lastView.getId());
+        Assertions.assertEquals(book.getId(), lastView.getItemId());
+        Assertions.assertEquals(booker.getId(), lastView.getBookerId());
+        Assertions.assertEquals(next.getId(), nextView.getId());
+    }
+
+    @Test
+    void testGetItemsOfUserStatementCountDoesNotGrowWithItems() {
+        long fewItemsStatements = countStatementsForOwnerWithItems("few", 2);
+        long manyItemsStatements = countStatementsForOwnerWithItems("many", 40);
+
+        Assertions.assertEquals(fewItemsStatements, manyItemsStatements);
+    }
+
+    @Test
+    void testOwnerItemsAndSearchArePagedInQuery() {
+        User owner = em.persist(User.builder().name("Иван").email("paged@yandex.ru").build());
+        for (int i = 0; i < 5; i++) {
+            em.persist(Item.builder().name("Дрель " + i).description("Описание дрели").available(true)
+                    .owner(owner).build());
+        }
+        em.flush();
+
+        List<Item> ownerPage = itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId(),
+                new OffsetPageRequest(2, 2));
+        List<Item> unalignedPage = itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId(),
+                new OffsetPageRequest(1, 3));
+        InMemoryItemSearchEngine searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        searchEngine.rebuild();
+        List<Long> searchPage = searchEngine.search("дрел", 4, 2);
+
+        Assertions.assertEquals(List.of("Дрель 2", "Дрель 3"), ownerPage.stream().map(Item::getName).toList());
+        Assertions.assertEquals(List.of("Дрель 1", "Дрель 2", "Дрель 3"), unalignedPage.stream().map(Item::getName)
+                .toList());
+        Assertions.assertEquals(List.of("Дрель 4"), itemRepository.findAllById(searchPage).stream()
+                .map(Item::getName).toList());
+    }
+
+    private long countStatementsForOwnerWithItems(String prefix, int itemCount) {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = em.persist(User.builder().name("Иван").email(prefix + "-owner@yandex.ru").build());
+        for (int i = 0; i < itemCount; i++) {
+            User booker = em.persist(User.builder().name("Петр").email(prefix + i + "@yandex.ru").build());
+            Item ownedItem = em.persist(Item.builder().name("Вещь " + i).description("Описание вещи")
+                    .available(true).owner(owner).build());
+            em.persist(booking(ownedItem, booker, now.minusDays(3), now.minusDays(2), StatusType.APPROVED));
+            em.persist(booking(ownedItem, booker, now.plusDays(2), now.plusDays(3), StatusType.APPROVED));
+            em.persist(Comment.builder().text("Отлично").item(ownedItem).author(booker).build());
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ItemServiceManager itemService = new ItemServiceManager(itemRepository, userRepository, commentRepository,
+                bookingRepository, new InMemoryItemSearchEngine(itemRepository));
+        List<ItemResponseDto> items = itemService.getItemsOfUserById(0, itemCount, owner.getId());
+
+        Assertions.assertEquals(itemCount, items.size());
+        items.forEach(itemResponseDto -> {
+            Assertions.assertNotNull(itemResponseDto.getLastBooking());
+            Assertions.assertNotNull(itemResponseDto.getNextBooking());
+            Assertions.assertEquals(1, itemResponseDto.getComments().size());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                   StatusType status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+@DataJpaTest
+public class SchemaIndexTest {
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+                + "SELECT x, 'user' || x, 'user' || x || '@yandex.ru' FROM SYSTEM_RANGE(1, 200)");
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) "
+                + "SELECT x, 'Запрос', MOD(x, 200) + 1, DATEADD('DAY', x, TIMESTAMP '2024-01-01 00:00:00') "
+                + "FROM SYSTEM_RANGE(1, 400)");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id) "
+                + "SELECT x, 'Вещь', 'Описание', MOD(x, 2) = 0, MOD(x, 200) + 1, "
+                + "CASE WHEN MOD(x, 4) = 0 THEN MOD(x, 400) + 1 END FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT x, DATEADD('HOUR', x, TIMESTAMP '2024-01-01 00:00:00'), "
+                + "DATEADD('HOUR', x + 2, TIMESTAMP '2024-01-01 00:00:00'), MOD(x, 1000) + 1, MOD(x, 200) + 1, "
+                + "CASE WHEN MOD(x, 3) = 0 THEN 'WAITING' ELSE 'APPROVED' END FROM SYSTEM_RANGE(1, 5000)");
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id) "
+                + "SELECT x, 'Отлично', MOD(x, 1000) + 1, MOD(x, 200) + 1 FROM SYSTEM_RANGE(1, 2000)");
+    }
+
+    @Test
+    void testMigrationsCreateHotPathIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList("SELECT LOWER(index_name) FROM information_schema.indexes",
+                String.class);
+
+        Assertions.assertTrue(indexes.containsAll(List.of("bookings_booker_start_idx", "bookings_item_start_idx",
+                "bookings_item_status_start_idx", "items_owner_idx", "items_request_idx", "comments_item_idx",
+                "requests_requestor_created_idx", "bookings_status_start_idx", "bookings_status_created_idx",
+                "bookings_archive_booker_end_idx", "bookings_archive_item_end_idx")),
+                indexes.toString());
+    }
+
+    @Test
+    void testHotLookupsUseIndexScans() {
+        Map<String, Object[]> hotLookups = Map.of(
+                "SELECT * FROM bookings WHERE booker_id = ? ORDER BY start_date DESC", new Object[]{1L},
+                "SELECT * FROM bookings WHERE item_id = ? AND status = ? ORDER BY start_date",
+                new Object[]{1L, "APPROVED"},
+                "SELECT * FROM bookings WHERE item_id = ? AND start_date < ? AND end_date > ? ORDER BY start_date",
+                new Object[]{1L, "2024-03-01 00:00:00", "2024-02-01 00:00:00"},
+                "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = ?", new Object[]{1L},
+                "SELECT * FROM comments WHERE item_id = ?", new Object[]{1L},
+                "SELECT * FROM requests WHERE requestor_id = ? ORDER BY created DESC", new Object[]{1L},
+                "SELECT * FROM items WHERE request_id = ?", new Object[]{1L},
+                "SELECT id FROM bookings WHERE status = ? AND start_date <= ?",
+                new Object[]{"WAITING", "2024-01-02 00:00:00"},
+                "SELECT id FROM bookings WHERE status = ? AND created <= ?",
+                new Object[]{"WAITING", "2024-01-02 00:00:00"});
+
+        hotLookups.forEach((sql, args) -> {
+            String plan = explain(sql, args);
+            Assertions.assertFalse(plan.contains(TABLE_SCAN), plan);
+        });
+        Assertions.assertTrue(explain("SELECT * FROM items WHERE available = ?", true).contains(TABLE_SCAN));
+    }
+
+    private String explain(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+    }
+}
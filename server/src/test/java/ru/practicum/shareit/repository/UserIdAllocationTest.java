@@ -0,0 +1,99 @@
+package ru.practicum.shareit.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserIdAllocationTest {
+    private static final int THREADS = 8;
+    private static final int USERS_PER_THREAD = 60;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testConcurrentCreatesGetDistinctIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int threadNumber = thread;
+            futures.add(executor.submit(() -> IntStream.range(0, USERS_PER_THREAD)
+                    .mapToObj(i -> new TransactionTemplate(transactionManager).execute(status -> userRepository
+                            .save(user("user" + threadNumber + "-" + i)).getId()))
+                    .toList()));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(THREADS * USERS_PER_THREAD, ids.size());
+        Assertions.assertEquals(THREADS * USERS_PER_THREAD, userRepository.count());
+    }
+
+    @Test
+    void testBulkInsertIsBatched() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.saveAll(
+                IntStream.range(0, 100).mapToObj(i -> user("batch" + i)).toList()));
+
+        Assertions.assertEquals(100, userRepository.count());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 10,
+                "Подготовлено выражений: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testInsertWithoutIdUsesSequence() {
+        Long savedId = userRepository.save(user("orm")).getId();
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('sql', 'sql@yandex.ru')");
+        Long nextId = userRepository.save(user("orm2")).getId();
+
+        Set<Long> ids = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM users", Long.class));
+        Assertions.assertEquals(3, ids.size());
+        Assertions.assertTrue(ids.containsAll(List.of(savedId, nextId)));
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .name(name)
+                .email(name + "@yandex.ru")
+                .build();
+    }
+}
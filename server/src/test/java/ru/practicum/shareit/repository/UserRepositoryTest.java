@@ -63,17 +63,15 @@ public class UserRepositoryTest {
     @SneakyThrows
     void testUserEmailDuplicate() {
         User user1 = User.builder()
-                .id(4L)
                 .name("Иван")
                 .email("ivan@mail.ru")
                 .build();
         userRepository.save(user1);
 
         User user2 = User.builder()
-                .id(5L)
                 .name("Петр")
                 .email("ivan@mail.ru")
                 .build();
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.save(user2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user2));
     }
 }
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.config.BookingConfig;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.ArchivedBookingDto;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+import ru.practicum.shareit.booking.service.BookingArchiveServiceManager;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.change.config.ChangeFeedConfig;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+import ru.practicum.shareit.change.service.ChangeFeedServiceManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+
+@DataJpaTest
+@Import({BookingConfig.class, BookingArchiveServiceManager.class, ChangeFeedConfig.class,
+        ChangeFeedServiceManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingArchiverTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+    @Autowired
+    private BookingArchiveService bookingArchiveService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectProvider<ChangeFeedService> changeFeedService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookingArchiver archiver;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void init() {
+        BookingProperties properties = new BookingProperties();
+        properties.setArchiveChunkSize(2);
+        properties.setArchiveAfterMonths(6);
+        archiver = new BookingArchiver(bookingArchiveRepository, changeFeedService, transactionTemplate,
+                jdbcTemplate, properties);
+        owner = userRepository.save(User.builder().name("Иван").email("archive-owner@yandex.ru").build());
+        booker = userRepository.save(User.builder().name("Петр").email("archive-booker@yandex.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings_archive");
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testArchiveMovesOldBookingsInChunksAndKeepsThemReadable() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking oldest = save(now.minusYears(2), now.minusYears(2).plusDays(1), StatusType.APPROVED);
+        Booking older = save(now.minusYears(1), now.minusYears(1).plusDays(1), StatusType.REJECTED);
+        Booking old = save(now.minusMonths(9), now.minusMonths(9).plusDays(1), StatusType.APPROVED);
+        Booking recent = save(now.minusMonths(1), now.minusMonths(1).plusDays(1), StatusType.APPROVED);
+        Booking future = save(now.plusDays(1), now.plusDays(2), StatusType.WAITING);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        archiver.bindTo(registry);
+
+        Assertions.assertEquals(3, archiver.archive());
+
+        Assertions.assertEquals(List.of(recent.getId(), future.getId()), bookingRepository.findAll().stream()
+                .map(Booking::getId).sorted().toList());
+        List<ArchivedBookingDto> archived = bookingArchiveService.getArchivedByBooker(0, 10, booker.getId());
+        Assertions.assertEquals(List.of(old.getId(), older.getId(), oldest.getId()),
+                archived.stream().map(ArchivedBookingDto::getId).toList());
+        Assertions.assertEquals(item.getName(), archived.get(0).getItemName());
+        Assertions.assertEquals(StatusType.REJECTED, archived.get(1).getStatus());
+        Assertions.assertEquals(older.getStart().withNano(0), archived.get(1).getStart().withNano(0));
+        Assertions.assertEquals(List.of(older.getId()), bookingArchiveService.getArchivedByOwner(1, 1, owner.getId())
+                .stream().map(ArchivedBookingDto::getId).toList());
+        Assertions.assertTrue(bookingArchiveService.getArchivedByOwner(0, 10, booker.getId()).isEmpty());
+        Assertions.assertTrue(bookingArchiveRepository.existsByBookerIdAndItemId(booker.getId(), item.getId()));
+        Assertions.assertEquals(1.0, registry.get("shareit.booking.archive.runs").functionCounter().count());
+        Assertions.assertEquals(3.0, registry.get("shareit.booking.archive.archived").functionCounter().count());
+        Assertions.assertEquals(0, archiver.archive());
+    }
+
+    @Test
+    void testLastApprovedBookingOfItemIsNotArchived() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking first = save(now.minusYears(2), now.minusYears(2).plusDays(1), StatusType.APPROVED);
+        Booking last = save(now.minusYears(1), now.minusYears(1).plusDays(1), StatusType.APPROVED);
+        Booking rejected = save(now.minusMonths(10), now.minusMonths(10).plusDays(1), StatusType.REJECTED);
+
+        Assertions.assertEquals(2, archiver.archive());
+
+        Assertions.assertEquals(List.of(last.getId()), bookingRepository.findAll().stream().map(Booking::getId)
+                .toList());
+        Assertions.assertEquals(List.of(rejected.getId(), first.getId()), bookingArchiveService
+                .getArchivedByBooker(0, 10, booker.getId()).stream().map(ArchivedBookingDto::getId).toList());
+        Assertions.assertEquals(last.getId(), bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
+                item.getId(), now, StatusType.APPROVED).getId());
+    }
+
+    @Test
+    void testPartitionWithRowsInDefaultIsCreatedByMovingThemBeforeArchiving() {
+        JdbcTemplate postgres = postgres();
+        BookingArchiveRepository repository = Mockito.mock(BookingArchiveRepository.class);
+        Mockito.when(postgres.queryForList(startsWith("SELECT DISTINCT"), eq(LocalDate.class), any()))
+                .thenReturn(List.of(LocalDate.of(2020, 3, 1)));
+        Mockito.when(postgres.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        BookingArchiver postgresArchiver = new BookingArchiver(repository, changeFeedService, transactionTemplate,
+                postgres, new BookingProperties());
+
+        Assertions.assertEquals(0, postgresArchiver.archive());
+
+        String range = " WHERE end_date >= '2020-03-01' AND end_date < '2020-04-01'";
+        InOrder order = Mockito.inOrder(postgres, repository);
+        order.verify(postgres).execute("ALTER TABLE bookings_archive DETACH PARTITION bookings_archive_default");
+        order.verify(postgres).execute("CREATE TABLE bookings_archive_202003 PARTITION OF bookings_archive " +
+                "FOR VALUES FROM ('2020-03-01') TO ('2020-04-01')");
+        order.verify(postgres).update("INSERT INTO bookings_archive_202003 SELECT * FROM bookings_archive_default"
+                + range);
+        order.verify(postgres).update("DELETE FROM bookings_archive_default" + range);
+        order.verify(postgres).execute("ALTER TABLE bookings_archive ATTACH PARTITION bookings_archive_default " +
+                "DEFAULT");
+        order.verify(repository).lockArchivable(any(), any(), anyInt());
+        Mockito.verify(postgres, Mockito.times(1)).execute(startsWith("CREATE TABLE"));
+    }
+
+    @Test
+    void testPartitionErrorStopsArchiving() {
+        JdbcTemplate postgres = postgres();
+        BookingArchiveRepository repository = Mockito.mock(BookingArchiveRepository.class);
+        Mockito.when(postgres.queryForList(startsWith("SELECT DISTINCT"), eq(LocalDate.class), any()))
+                .thenReturn(List.of(LocalDate.of(2020, 3, 1)));
+        Mockito.doThrow(new DataIntegrityViolationException("секция пересекается с другой"))
+                .when(postgres).execute(startsWith("CREATE TABLE bookings_archive_202003"));
+        BookingArchiver postgresArchiver = new BookingArchiver(repository, changeFeedService, transactionTemplate,
+                postgres, new BookingProperties());
+
+        Assertions.assertThrows(DataIntegrityViolationException.class, postgresArchiver::archive);
+
+        Mockito.verify(repository, Mockito.never()).lockArchivable(any(), any(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JdbcTemplate postgres() {
+        JdbcTemplate postgres = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(postgres.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        return postgres;
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, StatusType status) {
+        return bookingRepository.save(Booking.builder().item(item).booker(booker).start(start).end(end)
+                .status(status).build());
+    }
+}
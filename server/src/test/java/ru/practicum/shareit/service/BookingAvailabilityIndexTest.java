@@ -0,0 +1,213 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+
+public class BookingAvailabilityIndexTest {
+    private final LocalDateTime day = LocalDateTime.now().plusDays(10).withHour(0).withMinute(0).withSecond(0)
+            .withNano(0);
+    private final Item item = Item.builder().id(1L).build();
+    private BookingRepository bookingRepository;
+    private BookingAvailabilityIndex index;
+
+    @BeforeEach
+    void init() {
+        bookingRepository = Mockito.mock(BookingRepository.class);
+        Mockito.when(bookingRepository.findActiveIds(any(), any(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Long>>getArgument(0)));
+        index = new BookingAvailabilityIndex(bookingRepository, new BookingProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testIntervalsAreLoadedOnceAndCheckedForOverlap() {
+        Mockito.when(bookingRepository.findIntervals(eq(1L), any(), any()))
+                .thenReturn(List.of(view(1L, day.plusHours(10), day.plusHours(12))));
+
+        index.reserve(booking(2L, day.plusHours(12), day.plusHours(14)));
+        index.reserve(booking(3L, day.plusHours(8), day.plusHours(10)));
+        ResponseStatusException e = Assertions.assertThrows(ResponseStatusException.class,
+                () -> index.reserve(booking(4L, day.plusHours(11), day.plusHours(13))));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        Assertions.assertFalse(reserves(5L, day.plusHours(13), day.plusHours(15)));
+        Assertions.assertTrue(reserves(6L, day.plusHours(14), day.plusHours(15)));
+        Mockito.verify(bookingRepository, times(1)).findIntervals(eq(1L), any(), any());
+    }
+
+    @Test
+    void testBookingDeactivatedElsewhereIsCheckedBeforeConflict() {
+        Mockito.when(bookingRepository.findIntervals(eq(1L), any(), any()))
+                .thenReturn(List.of(view(1L, day.plusHours(10), day.plusHours(12)),
+                        view(2L, day.plusHours(14), day.plusHours(16))));
+        Mockito.doReturn(List.of(2L)).when(bookingRepository).findActiveIds(any(), any(), any());
+
+        index.reserve(booking(3L, day.plusHours(11), day.plusHours(13)));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> index.reserve(booking(4L, day.plusHours(15), day.plusHours(17))));
+
+        Assertions.assertTrue(reserves(5L, day.plusHours(10), day.plusHours(11)));
+        Mockito.verify(bookingRepository).findActiveIds(eq(List.of(1L)), any(), any());
+        Mockito.verify(bookingRepository).findActiveIds(eq(List.of(2L)), any(), any());
+    }
+
+    @Test
+    void testUncommittedReservationIsNotCheckedAgainstDatabase() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(booking(1L, day.plusHours(1), day.plusHours(2)));
+
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> index.reserve(booking(2L, day.plusHours(1), day.plusHours(2))));
+
+        Mockito.verify(bookingRepository, Mockito.never()).findActiveIds(any(), any(), any());
+    }
+
+    @Test
+    void testOwnBookingIsSkippedWhenLoaded() {
+        Mockito.when(bookingRepository.findIntervals(eq(1L), any(), any()))
+                .thenReturn(List.of(view(5L, day.plusHours(10), day.plusHours(12))));
+
+        index.reserve(booking(5L, day.plusHours(10), day.plusHours(12)));
+
+        Assertions.assertFalse(reserves(6L, day.plusHours(11), day.plusHours(12)));
+    }
+
+    @Test
+    void testReservationIsRemovedOnRollbackAndReleasedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(booking(1L, day.plusHours(1), day.plusHours(2)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        Assertions.assertTrue(reserves(3L, day, day.plusDays(1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(booking(2L, day.plusHours(1), day.plusHours(2)));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        Assertions.assertFalse(reserves(4L, day, day.plusDays(1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.release(1L, 2L);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        Assertions.assertTrue(reserves(5L, day, day.plusDays(1)));
+    }
+
+    @Test
+    void testConcurrentReservationsOfSameTimeSucceedOnce() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 64; i++) {
+                int hour = i % 4;
+                results.add(executor.submit(() -> {
+                    try {
+                        index.reserve(booking(ids.incrementAndGet(), day.plusHours(hour),
+                                day.plusHours(hour).plusMinutes(90)));
+                        return true;
+                    } catch (ResponseStatusException e) {
+                        return false;
+                    }
+                }));
+            }
+        }
+
+        int reserved = 0;
+        for (Future<Boolean> result : results) {
+            reserved += result.get() ? 1 : 0;
+        }
+        Assertions.assertEquals(2, reserved);
+        Mockito.verify(bookingRepository, times(1)).findIntervals(eq(1L), any(), any());
+    }
+
+    @Test
+    void testIntervalsPruneEndedBookings() {
+        BookingIntervals intervals = new BookingIntervals();
+        intervals.add(1, 0, 100);
+        intervals.add(2, 10, 20);
+        intervals.add(3, 150, 200);
+        intervals.add(4, 110, 120);
+
+        intervals.prune(100);
+        Assertions.assertEquals(2, intervals.size());
+        Assertions.assertTrue(intervals.overlaps(115, 116));
+        Assertions.assertFalse(intervals.overlaps(120, 150));
+        Assertions.assertFalse(intervals.overlaps(0, 110));
+        Assertions.assertEquals(List.of(3L, 4L), intervals.overlapping(100, 300));
+
+        Assertions.assertTrue(intervals.remove(3));
+        Assertions.assertFalse(intervals.remove(3));
+        Assertions.assertFalse(intervals.overlaps(120, 300));
+    }
+
+    private boolean reserves(Long id, LocalDateTime start, LocalDateTime end) {
+        try {
+            index.reserve(booking(id, start, end));
+        } catch (ResponseStatusException e) {
+            return false;
+        }
+        index.release(1L, id);
+        return true;
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().id(id).item(item).start(start).end(end).build();
+    }
+
+    private static BookingIntervalView view(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.config.BookingConfig;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceManager;
+import ru.practicum.shareit.booking.service.ItemLocks;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@DataJpaTest
+@Import({BookingServiceManager.class, BookingAvailabilityIndex.class, BookingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingProperties bookingProperties;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testOnlyOneOfOverlappingBookingsIsApproved() throws Exception {
+        User owner = userRepository.save(User.builder().name("Иван").email("race-owner@yandex.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = userRepository.save(User.builder().name("Петр").email("race-" + i + "@yandex.ru")
+                    .build());
+            bookingIds.add(bookingRepository.save(Booking.builder().item(item).booker(booker)
+                    .start(start.plusHours(i)).end(start.plusDays(1).plusHours(i)).status(StatusType.WAITING)
+                    .build()).getId());
+        }
+
+        List<Callable<HttpStatus>> tasks = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            tasks.add(() -> {
+                bookingService.confirm(bookingId, owner.getId(), true);
+                return HttpStatus.OK;
+            });
+        }
+        List<HttpStatus> results = race(tasks);
+
+        Assertions.assertEquals(1, results.stream().filter(HttpStatus.OK::equals).count());
+        Assertions.assertEquals(THREADS - 1, results.stream().filter(HttpStatus.CONFLICT::equals).count());
+        Assertions.assertEquals(1, bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == StatusType.APPROVED).count());
+    }
+
+    @Test
+    void testConcurrentDecisionsOnOneBookingFromSeveralInstancesApplyOnce() throws Exception {
+        User owner = userRepository.save(User.builder().name("Иван").email("race-owner@yandex.ru").build());
+        User booker = userRepository.save(User.builder().name("Петр").email("race-booker@yandex.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(Booking.builder().item(item).booker(booker).start(start)
+                .end(start.plusDays(1)).status(StatusType.WAITING).build());
+        Long version = bookingRepository.findVersionViewById(booking.getId()).orElseThrow().getVersion();
+
+        List<Callable<HttpStatus>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            BookingService instance = new BookingServiceManager(bookingRepository, itemRepository, userRepository,
+                    new BookingAvailabilityIndex(bookingRepository, bookingProperties), new ItemLocks(1),
+                    transactionTemplate, bookingProperties);
+            boolean approved = i % 2 == 0;
+            tasks.add(() -> {
+                instance.confirm(booking.getId(), owner.getId(), approved);
+                return HttpStatus.OK;
+            });
+        }
+        List<HttpStatus> results = race(tasks);
+
+        Assertions.assertEquals(1, results.stream().filter(HttpStatus.OK::equals).count());
+        Assertions.assertTrue(results.stream().allMatch(s -> s == HttpStatus.OK || s == HttpStatus.BAD_REQUEST
+                || s == HttpStatus.CONFLICT), results.toString());
+        Assertions.assertEquals(version + 1,
+                bookingRepository.findVersionViewById(booking.getId()).orElseThrow().getVersion());
+    }
+
+    private List<HttpStatus> race(List<Callable<HttpStatus>> tasks) throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<HttpStatus> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(tasks.size())) {
+            List<Future<HttpStatus>> futures = new ArrayList<>();
+            for (Callable<HttpStatus> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    gate.await();
+                    try {
+                        return task.call();
+                    } catch (ResponseStatusException e) {
+                        return HttpStatus.valueOf(e.getStatusCode().value());
+                    }
+                }));
+            }
+            gate.countDown();
+            for (Future<HttpStatus> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.config.BookingConfig;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.enums.StatusType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpirySweeper;
+import ru.practicum.shareit.change.config.ChangeFeedConfig;
+import ru.practicum.shareit.change.service.ChangeFeedService;
+import ru.practicum.shareit.change.service.ChangeFeedServiceManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@DataJpaTest
+@Import({BookingAvailabilityIndex.class, BookingConfig.class, ChangeFeedConfig.class,
+        ChangeFeedServiceManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingExpirySweeperTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+    @Autowired
+    private ObjectProvider<ChangeFeedService> changeFeedService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookingExpirySweeper sweeper;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void init() {
+        BookingProperties properties = new BookingProperties();
+        properties.setExpiryChunkSize(1);
+        sweeper = new BookingExpirySweeper(bookingRepository, availabilityIndex, changeFeedService,
+                transactionTemplate, properties);
+        User owner = userRepository.save(User.builder().name("Иван").email("expiry-owner@yandex.ru").build());
+        booker = userRepository.save(User.builder().name("Петр").email("expiry-booker@yandex.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Описание дрели").available(true)
+                .owner(owner).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testSweepExpiresStartedAndAbandonedWaitingBookingsInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking started = save(now.minusHours(1), now.plusDays(1), StatusType.WAITING);
+        Booking abandoned = save(now.plusDays(3), now.plusDays(4), StatusType.WAITING);
+        Booking fresh = save(now.plusDays(5), now.plusDays(6), StatusType.WAITING);
+        Booking approved = save(now.minusHours(1), now.plusDays(2), StatusType.APPROVED);
+        jdbcTemplate.update("UPDATE bookings SET created = ? WHERE id = ?", now.minusDays(8), abandoned.getId());
+        Assertions.assertThrows(ResponseStatusException.class, () -> availabilityIndex.reserve(probe(now)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        sweeper.bindTo(registry);
+
+        Assertions.assertEquals(2, sweeper.sweep());
+
+        Assertions.assertEquals(StatusType.EXPIRED, bookingRepository.findById(started.getId()).orElseThrow()
+                .getStatus());
+        Booking expired = bookingRepository.findById(abandoned.getId()).orElseThrow();
+        Assertions.assertEquals(StatusType.EXPIRED, expired.getStatus());
+        Assertions.assertEquals(abandoned.getVersion() + 1, expired.getVersion());
+        Assertions.assertEquals(StatusType.WAITING, bookingRepository.findById(fresh.getId()).orElseThrow()
+                .getStatus());
+        Assertions.assertEquals(StatusType.APPROVED, bookingRepository.findById(approved.getId()).orElseThrow()
+                .getStatus());
+        availabilityIndex.reserve(probe(now));
+        availabilityIndex.release(item.getId(), probe(now).getId());
+        Assertions.assertEquals(1.0, registry.get("shareit.booking.expiry.runs").functionCounter().count());
+        Assertions.assertEquals(3.0, registry.get("shareit.booking.expiry.chunks").functionCounter().count());
+        Assertions.assertEquals(2.0, registry.get("shareit.booking.expiry.expired").functionCounter().count());
+        Assertions.assertEquals(2.0, registry.get("shareit.booking.expiry.last.run.expired").gauge().value());
+        Assertions.assertEquals(0, sweeper.sweep());
+    }
+
+    @Test
+    void testSweepSkipsBookingsLockedByAnotherTransaction() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Booking locked = save(now.minusHours(2), now.plusDays(1), StatusType.WAITING);
+        Booking free = save(now.minusHours(1), now.plusDays(1), StatusType.WAITING);
+        CountDownLatch lockTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    jdbcTemplate.queryForList("SELECT id FROM bookings WHERE id = ? FOR UPDATE", locked.getId());
+                    lockTaken.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        Assertions.assertTrue(lockTaken.await(10, TimeUnit.SECONDS));
+
+        try {
+            Assertions.assertEquals(1, sweeper.sweep());
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(StatusType.WAITING, bookingRepository.findById(locked.getId()).orElseThrow()
+                .getStatus());
+        Assertions.assertEquals(StatusType.EXPIRED, bookingRepository.findById(free.getId()).orElseThrow()
+                .getStatus());
+        Assertions.assertEquals(1, sweeper.sweep());
+        Assertions.assertEquals(2, sweeper.getExpired());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, StatusType status) {
+        return bookingRepository.save(Booking.builder().item(item).booker(booker).start(start).end(end)
+                .status(status).build());
+    }
+
+    private Booking probe(LocalDateTime now) {
+        return Booking.builder().id(-1L).item(item).start(now.plusDays(3)).end(now.plusDays(4)).build();
+    }
+}
@@ -7,16 +7,27 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.config.BookingProperties;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceManager;
+import ru.practicum.shareit.booking.service.ItemLocks;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -24,6 +35,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -48,6 +60,8 @@ public class BookingServiceTest {
     UserRepository userRepository;
     @Mock
     BookingRepository bookingRepository;
+    @Mock
+    BookingAvailabilityIndex availabilityIndex;
 
     @InjectMocks
     BookingServiceManager bookingServiceManager;
@@ -57,16 +71,21 @@ public class BookingServiceTest {
     @BeforeEach
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
-        bookingServiceManager = new BookingServiceManager(bookingRepository, itemRepository, userRepository);
-        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru");
-        mockUser2 = new User(2L, "Петр", "petr@yandex.ru");
-        mockItem1 = new Item(1L, "Книга", "Книга.Описание", true, mockUser1, 1L);
+        BookingProperties bookingProperties = new BookingProperties();
+        bookingProperties.setConfirmBackoff(Duration.ZERO);
+        bookingServiceManager = new BookingServiceManager(bookingRepository, itemRepository, userRepository,
+                availabilityIndex, new ItemLocks(1),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), bookingProperties);
+        Mockito.lenient().when(bookingRepository.findItemIdById(Mockito.any())).thenReturn(Optional.of(1L));
+        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru", null);
+        mockUser2 = new User(2L, "Петр", "petr@yandex.ru", null);
+        mockItem1 = new Item(1L, "Книга", "Книга.Описание", true, mockUser1, 1L, null);
         mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1),
                 LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
         mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1),
                 LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
     }
 
     @AfterEach
@@ -187,6 +206,99 @@ public class BookingServiceTest {
         Mockito.verify(userRepository, times(1)).existsById(1L);
     }
 
+    @Test
+    void createBookingWhenTimeIsTakenShouldThrowConflict() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto(mockItem1.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3));
+        Mockito.when(userRepository.findById(mockUser2.getId())).thenReturn(Optional.of(mockUser2));
+        Mockito.when(itemRepository.findById(mockItem1.getId())).thenReturn(Optional.of(mockItem1));
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.CONFLICT, BookingAvailabilityIndex.BOOKED_MESSAGE))
+                .when(availabilityIndex).reserve(Mockito.any());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceManager.createBooking(bookingRequestDto, mockUser2.getId()));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        Mockito.verify(bookingRepository, never()).flush();
+    }
+
+    @Test
+    void createBookingWhenDatabaseRejectsOverlapShouldThrowConflict() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto(mockItem1.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3));
+        Mockito.when(userRepository.findById(mockUser2.getId())).thenReturn(Optional.of(mockUser2));
+        Mockito.when(itemRepository.findById(mockItem1.getId())).thenReturn(Optional.of(mockItem1));
+        Mockito.doThrow(new DataIntegrityViolationException("bookings_item_period_excl"))
+                .when(bookingRepository).flush();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceManager.createBooking(bookingRequestDto, mockUser2.getId()));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        Mockito.verify(availabilityIndex).reserve(Mockito.any());
+    }
+
+    @Test
+    void testRejectBookingReleasesTime() {
+        Booking booking = mockBooking2;
+        booking.setStatus(StatusType.WAITING);
+        Mockito.when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        Mockito.when(userRepository.existsById(mockUser1.getId())).thenReturn(true);
+
+        bookingServiceManager.confirm(booking.getId(), mockUser1.getId(), false);
+
+        Assertions.assertEquals(StatusType.REJECTED, booking.getStatus());
+        Mockito.verify(availabilityIndex).release(mockItem1.getId(), booking.getId());
+    }
+
+    @Test
+    void confirmWhenApprovedBookingOverlapsShouldThrowConflict() {
+        Booking booking = mockBooking2;
+        booking.setStatus(StatusType.WAITING);
+        Mockito.when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        Mockito.when(userRepository.existsById(mockUser1.getId())).thenReturn(true);
+        Mockito.when(bookingRepository.existsOverlapping(mockItem1.getId(), booking.getStart(), booking.getEnd(),
+                StatusType.APPROVED, booking.getId())).thenReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceManager.confirm(booking.getId(), mockUser1.getId(), true));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        Assertions.assertEquals(StatusType.WAITING, booking.getStatus());
+    }
+
+    @Test
+    void confirmShouldRetryAfterOptimisticLockFailure() {
+        Booking stale = new Booking(2L, mockBooking2.getStart(), mockBooking2.getEnd(), mockItem1, mockUser2,
+                StatusType.WAITING, null);
+        Booking fresh = new Booking(2L, mockBooking2.getStart(), mockBooking2.getEnd(), mockItem1, mockUser2,
+                StatusType.WAITING, null);
+        Mockito.when(bookingRepository.findById(2L)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        Mockito.when(userRepository.existsById(mockUser1.getId())).thenReturn(true);
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(Booking.class, 2L)).doNothing()
+                .when(bookingRepository).flush();
+
+        BookingResponseDto response = bookingServiceManager.confirm(2L, mockUser1.getId(), true);
+
+        Assertions.assertEquals(StatusType.APPROVED, response.getStatus());
+        Mockito.verify(bookingRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void confirmWhenRetriesExhaustedShouldThrowConflict() {
+        Mockito.when(bookingRepository.findById(2L)).thenAnswer(invocation -> Optional.of(new Booking(2L,
+                mockBooking2.getStart(), mockBooking2.getEnd(), mockItem1, mockUser2, StatusType.WAITING, null)));
+        Mockito.when(userRepository.existsById(mockUser1.getId())).thenReturn(true);
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(Booking.class, 2L))
+                .when(bookingRepository).flush();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceManager.confirm(2L, mockUser1.getId(), false));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        Mockito.verify(bookingRepository, times(3)).findById(2L);
+    }
+
     @Test
     public void testGetByIdExistingBooking() {
         Booking booking = mockBooking1;
@@ -297,7 +409,7 @@ public class BookingServiceTest {
         Long userId = 1L;
         Item item = mockItem1;
         item.setAvailable(true);
-        item.setOwner(new User(userId, "Test User", "test@email.com"));
+        item.setOwner(new User(userId, "Test User", "test@email.com", null));
         Mockito.when(userRepository.findById(userId))
                 .thenReturn(Optional.of(new User()));
         Mockito.when(itemRepository.findById(Mockito.any()))
@@ -417,7 +529,7 @@ public class BookingServiceTest {
     void testGetAllByBookerWhenNoBookings() {
         Long bookerId = 1L;
         Mockito.when(userRepository.findById(bookerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.findBookingByBookerOrderByStartDesc(mockUser1)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "ALL", bookerId);
         assertThat(bookings).isEmpty();
@@ -427,7 +539,7 @@ public class BookingServiceTest {
     void testGetAllByOwnerWhenNoBookings() {
         Long ownerId = 1L;
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookings).isEmpty();
@@ -468,7 +580,7 @@ public class BookingServiceTest {
         Mockito.when(userRepository.findById(bookerId)).thenReturn(Optional.of(mockUser1));
 
         List<Booking> bookings = List.of(mockBooking1, mockBooking2);
-        Mockito.when(bookingRepository.findBookingByBookerOrderByStartDesc(mockUser1)).thenReturn(bookings);
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.ALL))).thenReturn(bookings);
 
         List<BookingResponseDto> bookingResponses = bookingServiceManager.getAllByBooker(0, 10, "ALL", bookerId);
         assertThat(bookingResponses).hasSize(2);
@@ -481,7 +593,7 @@ public class BookingServiceTest {
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
 
         List<Booking> bookings = List.of(mockBooking1, mockBooking2);
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(bookings);
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(bookings);
 
         List<BookingResponseDto> bookingResponses = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookingResponses).hasSize(2);
@@ -566,7 +678,7 @@ public class BookingServiceTest {
     void testGetAllByBookerWhenNoBookingsFound() {
         Long bookerId = 1L;
         Mockito.when(userRepository.findById(bookerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.findBookingByBookerOrderByStartDesc(mockUser1)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "ALL", bookerId);
         assertThat(bookings).isEmpty();
@@ -576,7 +688,7 @@ public class BookingServiceTest {
     void testGetAllByOwnerWhenNoBookingsFound() {
         Long ownerId = 1L;
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookings).isEmpty();
@@ -652,7 +764,7 @@ public class BookingServiceTest {
     void testGetAllByOwnerWithNoBookings() {
         Long ownerId = 1L;
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookings).isEmpty();
@@ -681,7 +793,7 @@ public class BookingServiceTest {
     void getAllByOwnerWhenNoBookings_shouldReturnEmptyList() {
         Long ownerId = 1L;
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookings).isEmpty();
@@ -710,7 +822,7 @@ public class BookingServiceTest {
     public void getAllByOwnerWhenNoBookingsShouldReturnEmptyList() {
         Long ownerId = 1L;
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(List.of());
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(List.of());
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookings).isEmpty();
@@ -784,9 +896,9 @@ public class BookingServiceTest {
         User user = mockUser1;
         Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
 
-        Booking currentBooking = new Booking(3L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), mockItem1, user, StatusType.APPROVED);
+        Booking currentBooking = new Booking(3L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), mockItem1, user, StatusType.APPROVED, null);
         List<Booking> bookingList = List.of(currentBooking);
-        Mockito.when(bookingRepository.findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(Mockito.any(), Mockito.any(), Mockito.any()))
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.CURRENT)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "CURRENT", user.getId());
@@ -800,7 +912,7 @@ public class BookingServiceTest {
         Mockito.when(userRepository.findById(bookerId)).thenReturn(Optional.of(mockUser1));
 
         List<Booking> bookingList = List.of(mockBooking1, mockBooking2);
-        Mockito.when(bookingRepository.findBookingByBookerOrderByStartDesc(mockUser1)).thenReturn(bookingList);
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.ALL))).thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "ALL", bookerId);
         assertThat(bookings).hasSize(2);
@@ -814,9 +926,9 @@ public class BookingServiceTest {
         Long bookerId = 1L;
         Mockito.when(userRepository.findById(bookerId)).thenReturn(Optional.of(mockUser1));
 
-        Booking waitingBooking = new Booking(3L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), mockItem1, mockUser1, StatusType.WAITING);
+        Booking waitingBooking = new Booking(3L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), mockItem1, mockUser1, StatusType.WAITING, null);
         List<Booking> bookingList = List.of(waitingBooking);
-        Mockito.when(bookingRepository.findBookingByBookerAndStatusOrderByStartDesc(mockUser1, StatusType.WAITING)).thenReturn(bookingList);
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.WAITING))).thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "WAITING", bookerId);
         assertThat(bookings).hasSize(1);
@@ -829,7 +941,7 @@ public class BookingServiceTest {
         Mockito.when(userRepository.findById(ownerId)).thenReturn(Optional.of(mockUser1));
 
         List<Booking> bookingList = List.of(mockBooking1, mockBooking2);
-        Mockito.when(bookingRepository.getAllBookingsForOwner(ownerId)).thenReturn(bookingList);
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER && query.getState() == BookingState.ALL))).thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwner(0, 10, "ALL", ownerId);
         assertThat(bookings).hasSize(2);
@@ -843,7 +955,7 @@ public class BookingServiceTest {
         Mockito.when(userRepository.findById(bookerId)).thenReturn(Optional.of(mockUser1));
 
         List<Booking> bookingList = List.of(mockBooking1, mockBooking2);
-        Mockito.when(bookingRepository.findBookingByBookerOrderByStartDesc(mockUser1)).thenReturn(bookingList);
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.ALL))).thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "ALL", bookerId);
         assertThat(bookings).hasSize(2);
@@ -856,9 +968,9 @@ public class BookingServiceTest {
         User user = mockUser1;
         Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
 
-        Booking currentBooking = new Booking(3L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), mockItem1, user, StatusType.APPROVED);
+        Booking currentBooking = new Booking(3L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), mockItem1, user, StatusType.APPROVED, null);
         List<Booking> bookingList = List.of(currentBooking);
-        Mockito.when(bookingRepository.findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(Mockito.any(), Mockito.any(), Mockito.any()))
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.CURRENT)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "CURRENT", user.getId());
@@ -871,9 +983,9 @@ public class BookingServiceTest {
         User user = mockUser1;
         Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
 
-        Booking pastBooking = new Booking(4L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(1), mockItem1, user, StatusType.APPROVED);
+        Booking pastBooking = new Booking(4L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(1), mockItem1, user, StatusType.APPROVED, null);
         List<Booking> bookingList = List.of(pastBooking);
-        Mockito.when(bookingRepository.findBookingByBookerAndEndBeforeOrderByStartDesc(Mockito.any(), Mockito.any()))
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.PAST)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "PAST", user.getId());
@@ -886,9 +998,9 @@ public class BookingServiceTest {
         User user = mockUser1;
         Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
 
-        Booking waitingBooking = new Booking(5L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), mockItem1, user, StatusType.WAITING);
+        Booking waitingBooking = new Booking(5L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), mockItem1, user, StatusType.WAITING, null);
         List<Booking> bookingList = List.of(waitingBooking);
-        Mockito.when(bookingRepository.findBookingByBookerAndStatusOrderByStartDesc(Mockito.any(), Mockito.any()))
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.BOOKER && query.getState() == BookingState.WAITING)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookings = bookingServiceManager.getAllByBooker(0, 10, "WAITING", user.getId());
@@ -905,4 +1017,27 @@ public class BookingServiceTest {
             bookingServiceManager.getAllByBooker(0, 10, "INVALID_STATE", bookerId);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllByBookerAfterWithMalformedCursorShouldThrowResponseStatusException() {
+        assertThrows(ResponseStatusException.class, () ->
+                bookingServiceManager.getAllByBookerAfter("не-курсор", 10, "ALL", mockUser1.getId()));
+    }
+
+    @Test
+    void getAllByOwnerAfterShouldSeekFromCursor() {
+        BookingCursor cursor = new BookingCursor(mockBooking2.getStart(), mockBooking2.getId());
+        Mockito.when(userRepository.findById(mockUser1.getId())).thenReturn(Optional.of(mockUser1));
+        Mockito.when(bookingRepository.findBookings(Mockito.argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getUserId().equals(mockUser1.getId())
+                && query.getCursor().getStart().equals(cursor.getStart())
+                && query.getCursor().getId().equals(cursor.getId())
+                && query.getOffset() == 0 && query.getLimit() == 10))).thenReturn(List.of(mockBooking1));
+
+        List<BookingResponseDto> bookings = bookingServiceManager.getAllByOwnerAfter(cursor.encode(), 10, "ALL",
+                mockUser1.getId());
+
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(mockBooking1.getId());
+    }
+}
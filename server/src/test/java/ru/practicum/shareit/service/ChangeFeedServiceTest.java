@@ -0,0 +1,117 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.change.config.ChangeFeedConfig;
+import ru.practicum.shareit.change.dto.ChangeDto;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.change.enums.ChangeType;
+import ru.practicum.shareit.change.service.ChangeFeedServiceManager;
+
+import java.util.List;
+
+@DataJpaTest
+@Import({ChangeFeedConfig.class, ChangeFeedServiceManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private ChangeFeedServiceManager changeFeedService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long lastSeq;
+
+    @BeforeEach
+    void init() {
+        changeFeedService.publish(ChangeType.USER, 0L);
+        lastSeq = changeFeedService.getChangesAfter(-1, 1).getLastSeq();
+    }
+
+    @Test
+    void testChangesArePagedInOrder() {
+        changeFeedService.publish(ChangeType.ITEM, 1L);
+        changeFeedService.publish(ChangeType.USER, 2L);
+        changeFeedService.publish(ChangeType.BOOKING, 3L, 4L, 5L);
+
+        ChangeFeedDto first = changeFeedService.getChangesAfter(lastSeq, 2);
+        ChangeFeedDto second = changeFeedService.getChangesAfter(lastSeq + 2, 2);
+
+        Assertions.assertFalse(first.isReset());
+        Assertions.assertEquals(List.of(new ChangeDto(lastSeq + 1, ChangeType.ITEM, 1L),
+                new ChangeDto(lastSeq + 2, ChangeType.USER, 2L)), first.getChanges());
+        Assertions.assertEquals(List.of(new ChangeDto(lastSeq + 3, ChangeType.BOOKING, 3L, 4L, 5L)),
+                second.getChanges());
+        Assertions.assertEquals(lastSeq + 3, second.getLastSeq());
+        Assertions.assertEquals(List.of(), changeFeedService.getChangesAfter(lastSeq + 3, 2).getChanges());
+    }
+
+    @Test
+    void testReaderOutsideFeedIsReset() {
+        changeFeedService.publish(ChangeType.ITEM, 1L);
+        changeFeedService.publish(ChangeType.ITEM, 2L);
+        changeFeedService.publish(ChangeType.ITEM, 3L);
+        jdbcTemplate.update("UPDATE change_feed SET created = created - INTERVAL '2' HOUR");
+
+        Assertions.assertTrue(changeFeedService.getChangesAfter(-1, 10).isReset());
+        Assertions.assertTrue(changeFeedService.getChangesAfter(lastSeq + 4, 10).isReset());
+        Assertions.assertTrue(changeFeedService.prune() >= 2);
+
+        Assertions.assertTrue(changeFeedService.getChangesAfter(lastSeq, 10).isReset());
+        ChangeFeedDto newest = changeFeedService.getChangesAfter(lastSeq + 2, 10);
+        Assertions.assertFalse(newest.isReset());
+        Assertions.assertEquals(List.of(new ChangeDto(lastSeq + 3, ChangeType.ITEM, 3L)), newest.getChanges());
+    }
+
+    @Test
+    void testYoungGapStopsPageUntilItExpires() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO change_feed (type, entity_id) VALUES ('ITEM', 1)");
+            status.setRollbackOnly();
+        });
+        changeFeedService.publish(ChangeType.ITEM, 2L);
+
+        Assertions.assertEquals(List.of(), changeFeedService.getChangesAfter(lastSeq, 10).getChanges());
+
+        jdbcTemplate.update("UPDATE change_feed SET created = created - INTERVAL '1' MINUTE WHERE seq > ?",
+                lastSeq);
+        Assertions.assertEquals(List.of(new ChangeDto(lastSeq + 2, ChangeType.ITEM, 2L)),
+                changeFeedService.getChangesAfter(lastSeq, 10).getChanges());
+    }
+
+    @Test
+    void testTransactionChangesAreCoalescedAndVisibleAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.publish(ChangeType.ITEM, 1L);
+            changeFeedService.publish(ChangeType.ITEM, 1L);
+            changeFeedService.publish(ChangeType.COMMENT, 7L);
+            Assertions.assertEquals(lastSeq, changeFeedService.getChangesAfter(lastSeq, 10).getLastSeq());
+        });
+
+        Assertions.assertEquals(List.of(new ChangeDto(lastSeq + 1, ChangeType.ITEM, 1L),
+                new ChangeDto(lastSeq + 2, ChangeType.COMMENT, 7L)),
+                changeFeedService.getChangesAfter(lastSeq, 10).getChanges());
+    }
+
+    @Test
+    void testRolledBackChangesAreDropped() {
+        transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.publish(ChangeType.USER, 1L);
+            status.setRollbackOnly();
+        });
+        changeFeedService.publish(ChangeType.USER, 2L);
+
+        Assertions.assertEquals(List.of(new ChangeDto(lastSeq + 1, ChangeType.USER, 2L)),
+                changeFeedService.getChangesAfter(lastSeq, 10).getChanges());
+    }
+}
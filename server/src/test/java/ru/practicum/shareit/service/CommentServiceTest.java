@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
@@ -43,6 +44,9 @@ public class CommentServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
     @InjectMocks
     private CommentServiceManager commentService;
 
@@ -52,9 +56,9 @@ public class CommentServiceTest {
 
     @BeforeEach
     public void setUp() {
-        mockUser = new User(1L, "User 1", "user1@example.com");
-        mockItem1 = new Item(1L, "Item1", "Description", true, mockUser, null);
-        mockBooking1 = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().minusDays(1), mockItem1, mockUser, StatusType.APPROVED);
+        mockUser = new User(1L, "User 1", "user1@example.com", null);
+        mockItem1 = new Item(1L, "Item1", "Description", true, mockUser, null, null);
+        mockBooking1 = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().minusDays(1), mockItem1, mockUser, StatusType.APPROVED, null);
     }
 
     @Test
@@ -82,4 +86,23 @@ public class CommentServiceTest {
         verify(bookingRepository).findAllByBookerIdAndItemIdAndEndBefore(any(), any(), any(LocalDateTime.class));
         verify(commentRepository).save(any(Comment.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addCommentWhenBookingIsArchivedTest() {
+        CommentDto commentDto = CommentDto.builder()
+                .text("This is a comment")
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem1));
+        when(bookingRepository.findAllByBookerIdAndItemIdAndEndBefore(any(), any(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(bookingArchiveRepository.existsByBookerIdAndItemId(1L, 1L)).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CommentResponseDto result = commentService.addComment(commentDto, 1L, 1L, LocalDateTime.now());
+
+        Assertions.assertEquals(commentDto.getText(), result.getText());
+        verify(bookingArchiveRepository).existsByBookerIdAndItemId(1L, 1L);
+    }
+}
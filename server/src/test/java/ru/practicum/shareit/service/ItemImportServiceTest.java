@@ -0,0 +1,131 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoSession;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemImportServiceManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+public class ItemImportServiceTest {
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+
+    private ItemImportServiceManager itemImportService;
+    private MockitoSession session;
+    private User owner;
+
+    @BeforeEach
+    void init() {
+        session = Mockito.mockitoSession().initMocks(this).startMocking();
+        itemImportService = new ItemImportServiceManager(itemRepository, userRepository, transactionManager,
+                itemSearchEngine);
+        owner = new User(1L, "Иван", "ivan@yandex.ru", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.finishMocking();
+    }
+
+    @Test
+    void importItemsResolvesOwnerOnceAndSavesInChunks() {
+        AtomicLong ids = new AtomicLong();
+        List<Integer> chunkSizes = new ArrayList<>();
+        Mockito.when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        Mockito.when(itemRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            chunkSizes.add(items.size());
+            items.forEach(item -> {
+                Assertions.assertSame(owner, item.getOwner());
+                item.setId(ids.incrementAndGet());
+            });
+            return items;
+        });
+        List<ItemImportResult> report = new ArrayList<>();
+
+        itemImportService.importItems(IntStream.rangeClosed(1, 120).mapToObj(i -> item("Вещь " + i)).iterator(),
+                owner.getId(), report::add);
+
+        Assertions.assertEquals(List.of(50, 50, 20), chunkSizes);
+        Assertions.assertEquals(120, report.size());
+        Assertions.assertTrue(report.stream().allMatch(result -> result.getError() == null
+                && result.getId() == result.getRow()));
+        Mockito.verify(userRepository, Mockito.times(1)).findById(owner.getId());
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(Mockito.any());
+        Mockito.verify(itemSearchEngine, Mockito.times(120)).index(Mockito.any(Item.class));
+    }
+
+    @Test
+    void importItemsReportsInvalidRowsAndKeepsValidOnes() {
+        Mockito.when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        Mockito.when(itemRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            items.forEach(item -> item.setId(10L));
+            return items;
+        });
+        List<ItemImportResult> report = new ArrayList<>();
+
+        itemImportService.importItems(List.of(item("Дрель"), item(" "), item("Пила")).iterator(), owner.getId(),
+                report::add);
+
+        Assertions.assertEquals(List.of(ItemImportResult.failed(2, "Имя не заполненно."),
+                ItemImportResult.imported(1, 10L), ItemImportResult.imported(3, 10L)), report);
+    }
+
+    @Test
+    void importItemsReportsWholeChunkWhenSaveFails() {
+        Mockito.when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        Mockito.when(itemRepository.saveAll(Mockito.anyList()))
+                .thenThrow(new DataIntegrityViolationException("request_id"));
+        List<ItemImportResult> report = new ArrayList<>();
+
+        itemImportService.importItems(List.of(item("Дрель"), item("Пила")).iterator(), owner.getId(), report::add);
+
+        Assertions.assertEquals(List.of(1, 2), report.stream().map(ItemImportResult::getRow).toList());
+        Assertions.assertTrue(report.stream().allMatch(result -> result.getId() == null
+                && result.getError().startsWith("Ошибка сохранения")));
+        Mockito.verify(transactionManager).rollback(Mockito.any());
+    }
+
+    @Test
+    void importItemsForUnknownOwnerShouldThrow() {
+        Mockito.when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ResponseStatusException.class, () -> itemImportService.importItems(
+                List.of(item("Дрель")).iterator(), owner.getId(), result -> { }));
+        Mockito.verify(itemRepository, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
+    private static ItemDto item(String name) {
+        return ItemDto.builder()
+                .name(name)
+                .description("Описание")
+                .available(true)
+                .build();
+    }
+}
@@ -56,14 +56,14 @@ public class ItemRequestServiceTest {
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
         itemRequestServiceImpl = new ItemRequestServiceManager(itemRequestRepository, itemRepository, userRepository);
-        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru");
-        mockUser2 = new User(2L, "Петр", "petr@yandex.ru");
-        mockItem1 = new Item(1L, "Книга", "Описание книги", true, mockUser1, 1L);
-        mockItem2 = new Item(2L, "Телефон", "Описание телефона", true, mockUser2, 2L);
+        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru", null);
+        mockUser2 = new User(2L, "Петр", "petr@yandex.ru", null);
+        mockItem1 = new Item(1L, "Книга", "Описание книги", true, mockUser1, 1L, null);
+        mockItem2 = new Item(2L, "Телефон", "Описание телефона", true, mockUser2, 2L, null);
         mockItemRequest1 = new ItemRequest(1L, "Требуется книга", mockUser2,
-                LocalDateTime.of(2021, 12, 12, 1, 1, 1));
+                LocalDateTime.of(2021, 12, 12, 1, 1, 1), null);
         mockItemRequest2 = new ItemRequest(2L, "Требуется телефон", mockUser1,
-                LocalDateTime.of(2021, 12, 12, 1, 1, 1));
+                LocalDateTime.of(2021, 12, 12, 1, 1, 1), null);
     }
 
     @AfterEach
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoSession;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class ItemSearchEngineTest {
+    @Mock
+    ItemRepository itemRepository;
+
+    private InMemoryItemSearchEngine searchEngine;
+    private MockitoSession session;
+
+    @BeforeEach
+    void init() {
+        session = Mockito.mockitoSession().initMocks(this).startMocking();
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.finishMocking();
+    }
+
+    @Test
+    void testSearchRanksNameMatchesAboveDescriptionMatches() {
+        searchEngine.index(item(1L, "Пила", "Пила для дрели", true));
+        searchEngine.index(item(2L, "Дрель", "Аккумуляторная дрель", true));
+        searchEngine.index(item(3L, "Отвертка", "Почти дрель", true));
+        searchEngine.index(item(4L, "Дрель ударная", "Описание", true));
+
+        Assertions.assertEquals(List.of(2L, 4L, 1L, 3L), searchEngine.search("ДРЕЛ", 0, 10));
+        Assertions.assertEquals(List.of(1L, 3L), searchEngine.search("дрел", 2, 2));
+    }
+
+    @Test
+    void testSearchRequiresEveryWordAndSkipsUnavailableItems() {
+        searchEngine.index(item(1L, "Дрель ударная", "Мощная", true));
+        searchEngine.index(item(2L, "Дрель", "Легкая", true));
+        searchEngine.index(item(3L, "Дрель ударная", "Сломана", false));
+
+        Assertions.assertEquals(List.of(1L), searchEngine.search("дрель, удар", 0, 10));
+        Assertions.assertEquals(List.of(), searchEngine.search("дрель пила", 0, 10));
+        Assertions.assertEquals(List.of(), searchEngine.search(" ,.", 0, 10));
+    }
+
+    @Test
+    void testIndexReplacesAndRemoveDropsItem() {
+        searchEngine.index(item(1L, "Дрель", "Описание", true));
+        searchEngine.index(item(1L, "Пила", "Описание", true));
+
+        Assertions.assertEquals(List.of(), searchEngine.search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(1L), searchEngine.search("пила", 0, 10));
+
+        searchEngine.remove(1L);
+
+        Assertions.assertEquals(List.of(), searchEngine.search("описание", 0, 10));
+    }
+
+    @Test
+    void testChangesInsideTransactionAreAppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.index(item(1L, "Дрель", "Описание", true));
+
+            Assertions.assertEquals(List.of(), searchEngine.search("дрель", 0, 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(List.of(1L), searchEngine.search("дрель", 0, 10));
+    }
+
+    @Test
+    void testPagesFollowFullRankingAcrossManyItems() {
+        Random random = new Random(42);
+        Map<Long, Integer> expectedScores = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            int nameHits = random.nextInt(3);
+            int descriptionHits = random.nextInt(3);
+            boolean available = random.nextInt(5) > 0;
+            searchEngine.index(item(id, "пила ".repeat(nameHits) + "вещь", "дрель ".repeat(descriptionHits) + "описание",
+                    available));
+            if (available && nameHits > 0 && descriptionHits > 0) {
+                expectedScores.put(id, nameHits * 2 + descriptionHits);
+            }
+        }
+        List<Long> expected = expectedScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < expected.size(); from += 7) {
+            paged.addAll(searchEngine.search("пил дрел", from, 7));
+        }
+
+        Assertions.assertEquals(expected, paged);
+        Assertions.assertEquals(List.of(), searchEngine.search("пил дрел", expected.size(), 7));
+    }
+
+    @Test
+    void testFuzzySearchFindsMisspelledAndPartialWords() {
+        searchEngine.index(item(1L, "Drill", "Cordless drill", true));
+        searchEngine.index(item(2L, "Дрель", "Ударная", true));
+        searchEngine.index(item(3L, "Пила", "Для дрели", true));
+        searchEngine.index(item(4L, "Дрель", "Сломана", false));
+        searchEngine.index(item(5L, "Молоток", "Тяжелый", true));
+
+        Assertions.assertEquals(List.of(1L), searchEngine.fuzzySearch("drll", 0, 10));
+        Assertions.assertEquals(List.of(2L, 3L), searchEngine.fuzzySearch("дрел", 0, 10));
+        Assertions.assertEquals(List.of(3L), searchEngine.fuzzySearch("дрел", 1, 10));
+        Assertions.assertEquals(List.of(5L, 2L), searchEngine.fuzzySearch("молоток ударна", 0, 10));
+        Assertions.assertEquals(List.of(), searchEngine.fuzzySearch("xyz", 0, 10));
+    }
+
+    @Test
+    void testFuzzySearchForgetsRemovedWords() {
+        searchEngine.index(item(1L, "Рубанок", "Описание", true));
+        searchEngine.index(item(1L, "Стамеска", "Описание", true));
+
+        Assertions.assertEquals(List.of(), searchEngine.fuzzySearch("рубанк", 0, 10));
+        Assertions.assertEquals(List.of(1L), searchEngine.fuzzySearch("стамска", 0, 10));
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder().id(id).name(name).description(description).available(available).build();
+    }
+}
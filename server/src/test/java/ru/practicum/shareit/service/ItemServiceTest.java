@@ -10,6 +10,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.SlotGranularity;
 import ru.practicum.shareit.booking.enums.StatusType;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -17,11 +20,14 @@ import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OffsetPageRequest;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceManager;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -51,6 +57,8 @@ public class ItemServiceTest {
     BookingRepository bookingRepository;
     @Mock
     CommentRepository commentRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
 
     @InjectMocks
     ItemServiceManager itemService;
@@ -60,19 +68,20 @@ public class ItemServiceTest {
     @BeforeEach
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
-        itemService = new ItemServiceManager(itemRepository, userRepository, commentRepository, bookingRepository);
-        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru");
-        mockUser2 = new User(2L, "Петр", "petr@yandex.ru");
+        itemService = new ItemServiceManager(itemRepository, userRepository, commentRepository, bookingRepository,
+                itemSearchEngine);
+        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru", null);
+        mockUser2 = new User(2L, "Петр", "petr@yandex.ru", null);
         mockItem1 = new Item(1L, "Книга", "Описание книги",
-                true, mockUser1, 1L);
+                true, mockUser1, 1L, null);
         mockItem2 = new Item(2L, "Телефон", "Описание телефона",
-                true, mockUser2, 2L);
+                true, mockUser2, 2L, null);
         mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1),
                 LocalDateTime.of(2021, 12, 22, 1, 1),
-                mockItem1, mockUser2, StatusType.APPROVED);
+                mockItem1, mockUser2, StatusType.APPROVED, null);
         mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1),
                 LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2,
-                StatusType.APPROVED);
+                StatusType.APPROVED, null);
     }
 
     @AfterEach
@@ -221,7 +230,7 @@ public class ItemServiceTest {
 
         List<Item> items = Arrays.asList(item1, item2);
         Mockito
-                .when(itemRepository.findAllByOwnerIdOrderByIdAsc(1L))
+                .when(itemRepository.findAllByOwnerIdOrderByIdAsc(1L, new OffsetPageRequest(0, 10)))
                 .thenReturn(items);
 
         Comment comment1 = Comment.builder()
@@ -240,27 +249,23 @@ public class ItemServiceTest {
         List<Comment> comments = List.of(comment1, comment2);
 
         Mockito
-                .when(commentRepository.findAllByItem_Id(item1.getId()))
+                .when(commentRepository.findAllByItemIdIn(List.of(item1.getId(), item2.getId())))
                 .thenReturn(comments);
 
         Booking lastBooking = mockBooking1;
         Booking nextBooking = mockBooking2;
 
         Mockito
-                .when(bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                        eq(1L), Mockito.any(LocalDateTime.class), eq(StatusType.APPROVED)))
-                .thenReturn(lastBooking);
-        Mockito
-                .when(bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                        eq(1L), Mockito.any(LocalDateTime.class), eq(StatusType.APPROVED)))
-                .thenReturn(nextBooking);
+                .when(bookingRepository.findLastAndNextBookings(eq(List.of(item1.getId(), item2.getId())),
+                        Mockito.any(LocalDateTime.class), eq(StatusType.APPROVED.name())))
+                .thenReturn(List.of(bookingView(lastBooking, true), bookingView(nextBooking, false)));
 
         itemService.createNewItem(ItemMapper.itemToItemDto(item1), userOwner.getId());
         itemService.createNewItem(ItemMapper.itemToItemDto(item2), userOwner.getId());
         bookingRepository.save(lastBooking);
         bookingRepository.save(nextBooking);
 
-        List<ItemResponseDto> itemResponseDtos = itemService.getItemsOfUserById(userOwner.getId());
+        List<ItemResponseDto> itemResponseDtos = itemService.getItemsOfUserById(0, 10, userOwner.getId());
 
         Assertions.assertEquals(2, itemResponseDtos.size());
         ItemResponseDto itemResponseDto1 = itemResponseDtos.get(0);
@@ -321,11 +326,23 @@ public class ItemServiceTest {
         List<Item> items = List.of(mockItem1, mockItem2);
 
         Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findByText(text)).thenReturn(items);
+        Mockito.when(itemSearchEngine.search(text, 0, 10)).thenReturn(List.of(2L, 1L));
+        Mockito.when(itemRepository.findAllById(List.of(2L, 1L))).thenReturn(items);
+
+        List<ItemDto> result = itemService.findItemsOfUser(0, 10, text, false, user.getId());
+
+        Assertions.assertEquals(List.of(2L, 1L), result.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    public void testFuzzySearch() {
+        Mockito.when(userRepository.findById(mockUser1.getId())).thenReturn(Optional.of(mockUser1));
+        Mockito.when(itemSearchEngine.fuzzySearch("Опсание", 10, 5)).thenReturn(List.of(1L));
+        Mockito.when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(mockItem1));
 
-        List<ItemDto> result = itemService.findItemsOfUser(text, user.getId());
+        List<ItemDto> result = itemService.findItemsOfUser(10, 5, "Опсание", true, mockUser1.getId());
 
-        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(List.of(1L), result.stream().map(ItemDto::getId).toList());
     }
 
     @Test
@@ -381,7 +398,7 @@ public class ItemServiceTest {
 
         Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        List<ItemDto> result = itemService.findItemsOfUser(text, userId);
+        List<ItemDto> result = itemService.findItemsOfUser(0, 10, text, false, userId);
 
         Assertions.assertEquals(0, result.size());
     }
@@ -395,14 +412,36 @@ public class ItemServiceTest {
         Mockito.when(userRepository.findById(userId))
                 .thenReturn(Optional.of(user));
 
-        Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(userId))
+        Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(userId, new OffsetPageRequest(0, 10)))
                 .thenReturn(List.of());
 
-        List<ItemResponseDto> result = itemService.getItemsOfUserById(userId);
+        List<ItemResponseDto> result = itemService.getItemsOfUserById(0, 10, userId);
 
         Assertions.assertEquals(0, result.size());
     }
 
+    @Test
+    public void testGetItemsOfUserByIdUsesExactOffset() {
+        User user = new User();
+        user.setId(1L);
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(1L, new OffsetPageRequest(5, 10)))
+                .thenReturn(List.of());
+
+        Assertions.assertEquals(0, itemService.getItemsOfUserById(5, 10, 1L).size());
+    }
+
+    @Test
+    public void testInvalidPagingIsBadRequest() {
+        ResponseStatusException zeroSize = Assertions.assertThrows(ResponseStatusException.class,
+                () -> itemService.getItemsOfUserById(0, 0, 1L));
+        ResponseStatusException negativeFrom = Assertions.assertThrows(ResponseStatusException.class,
+                () -> itemService.findItemsOfUser(-1, 10, "дрель", false, 1L));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, zeroSize.getStatusCode());
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, negativeFrom.getStatusCode());
+    }
+
     @Test
     public void testGetItemByIdItemNotFound() {
         Long itemId = 1L;
@@ -451,4 +490,89 @@ public class ItemServiceTest {
 
         Assertions.assertThrows(NotFoundException.class, () -> itemService.deleteItemOfUserById(itemId, userOwnerId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailabilityMergesBookingsIntoRuns() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(mockUser2));
+        Mockito.when(itemRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(bookingRepository.findIntervalsBetween(eq(1L), eq(from), eq(to), Mockito.any()))
+                .thenReturn(List.of(
+                        intervalView(1L, from.minusDays(3), from.plusHours(2)),
+                        intervalView(2L, from.plusDays(3).plusHours(12), from.plusDays(4)),
+                        intervalView(3L, from.plusDays(3).plusHours(20), from.plusDays(5).plusHours(1)),
+                        intervalView(4L, from.plusDays(6), from.plusDays(7)),
+                        intervalView(5L, from.plusDays(9).plusHours(23), from.plusDays(12))));
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(1L, 2L, from, to, "day");
+
+        Assertions.assertEquals(SlotGranularity.DAY, availability.getGranularity());
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 4, 2, 1}, availability.getRuns());
+        Mockito.verify(bookingRepository).findIntervalsBetween(1L, from, to,
+                List.of(StatusType.WAITING, StatusType.APPROVED));
+    }
+
+    @Test
+    void getItemAvailabilityUsesDefaultRangeAndRejectsInvalidOnes() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(mockUser2));
+        Mockito.when(itemRepository.existsById(1L)).thenReturn(true);
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(1L, 2L, from, null, "HOUR");
+
+        Assertions.assertEquals(from.plusDays(7), availability.getTo());
+        Assertions.assertArrayEquals(new int[]{168}, availability.getRuns());
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> itemService.getItemAvailability(1L, 2L, from, from, "DAY"));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> itemService.getItemAvailability(1L, 2L, from, from.plusYears(1), "HOUR"));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> itemService.getItemAvailability(1L, 2L, from, null, "WEEK"));
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemService.getItemAvailability(5L, 2L, from, null, "DAY"));
+    }
+
+    private static BookingIntervalView intervalView(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    private static ItemBookingView bookingView(Booking booking, boolean last) {
+        return new ItemBookingView() {
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+
+            @Override
+            public Boolean getLast() {
+                return last;
+            }
+        };
+    }
+}
@@ -35,8 +35,8 @@ public class UserServiceTest {
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
         userService = new UserServiceManager(userRepository);
-        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru");
-        mockUser2 = new User(2L, "Петр", "petr@yandex.ru");
+        mockUser1 = new User(1L, "Иван", "ivan@yandex.ru", null);
+        mockUser2 = new User(2L, "Петр", "petr@yandex.ru", null);
     }
 
     @AfterEach
@@ -47,11 +47,13 @@ public class UserServiceTest {
     @Test
     public void testCreate() {
         UserDto userDto = UserMapper.userToUserDto(mockUser1);
-        Mockito.when(userRepository.save(Mockito.any()))
+        Mockito.when(userRepository.saveAndFlush(Mockito.any()))
                 .thenReturn(UserMapper.userDtoToUser(userDto));
         UserDto userDto2 = userService.createNewUser(userDto);
 
-        Mockito.verify(userRepository, Mockito.times(1)).save(mockUser1);
+        Mockito.verify(userRepository, Mockito.times(1)).saveAndFlush(Mockito.argThat(user -> user.getId() == null
+                && user.getEmail().equals(mockUser1.getEmail())));
+        Mockito.verify(userRepository, Mockito.never()).findAll();
     }
 
     @Test
@@ -59,11 +61,8 @@ public class UserServiceTest {
         UserDto userDto1 = UserMapper.userToUserDto(mockUser1);
         UserDto userDto2 = UserMapper.userToUserDto(mockUser2);
 
-        Mockito.when(userRepository.save(Mockito.any()))
-                .thenReturn(UserMapper.userDtoToUser(userDto1));
-
         Mockito.when(userRepository.saveAndFlush(Mockito.any()))
-                .thenReturn(UserMapper.userDtoToUser(userDto2));
+                .thenReturn(UserMapper.userDtoToUser(userDto1), UserMapper.userDtoToUser(userDto2));
 
         Mockito.when((userRepository.findById(Mockito.any())))
                 .thenReturn(Optional.ofNullable(UserMapper.userDtoToUser(userDto1)));
@@ -82,7 +81,7 @@ public class UserServiceTest {
     public void testDeleteById() {
         UserDto userDto1 = UserMapper.userToUserDto(mockUser1);
 
-        Mockito.when(userRepository.save(Mockito.any()))
+        Mockito.when(userRepository.saveAndFlush(Mockito.any()))
                 .thenReturn(UserMapper.userDtoToUser(userDto1));
 
         User user1 = UserMapper.userDtoToUser(userService.createNewUser(userDto1));
@@ -208,7 +207,7 @@ public class UserServiceTest {
     public void testCreateUserWithExistingEmail() {
         UserDto userDto = UserMapper.userToUserDto(mockUser1);
 
-        Mockito.when(userRepository.save(Mockito.any()))
+        Mockito.when(userRepository.saveAndFlush(Mockito.any()))
                 .thenThrow(new DataIntegrityViolationException("Duplicate email"));
 
         Assertions.assertThrows(ConditionsNotMetException.class, () -> {